@@ -0,0 +1,39 @@
+package com.example.demo.llm;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GptService.requestGpt 경로의 List<Map<String, String>> → Spring AI Message 변환 비용
+ */
+@State(Scope.Benchmark)
+public class MessageConversionBenchmark {
+    private static final String[] ROLES = {"assistant", "assistant", "user"};
+
+    @Param({"10", "100", "2000"})
+    private int messageCount;
+
+    private List<Map<String, String>> messages;
+
+    @Setup
+    public void setup() {
+        messages = new ArrayList<>(messageCount);
+        messages.add(Map.of("role", "system", "content", "당신은 토론의 비평가입니다. ".repeat(50)));
+        for (int i = 1; i < messageCount; i++) {
+            messages.add(Map.of("role", ROLES[i % ROLES.length], "content", "발언 " + i + ": 의견을 제시합니다. ".repeat(10)));
+        }
+    }
+
+    @Benchmark
+    public List<Message> toSpringAiMessages() {
+        return OpenAiLlmProvider.toSpringAiMessages(messages);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ContextBudgetProperties;
+import com.example.demo.config.PromptLoader;
+import com.example.demo.entity.ChatEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ChatService.buildMessages: 히스토리 길이별 프롬프트 구성 비용 (토큰 예산 적용, 다이제스트 포함)
+ */
+@State(Scope.Benchmark)
+public class BuildMessagesBenchmark {
+    private static final String[] EXPERTS = {"moderator", "creator", "critic", "analyst", "researcher"};
+
+    @Param({"10", "100", "500", "2000"})
+    private int historySize;
+
+    @Param({"critic", "moderator", "summarizer"})
+    private String roleKey;
+
+    private ChatService chatService;
+    private List<ChatEntity> history;
+    private String note;
+
+    @Setup
+    public void setup() throws Exception {
+        PromptLoader promptLoader = new PromptLoader(new DefaultResourceLoader());
+        promptLoader.init();
+
+        // application.yml의 chat.context 기본값과 동일
+        ContextBudgetProperties budgets = new ContextBudgetProperties();
+        budgets.setBudgets(Map.of("moderator", 4000, "researcher", 6000, "summarizer", 12000));
+        ContextWindowBuilder contextWindowBuilder = new ContextWindowBuilder(budgets, new TokenEstimator());
+
+        // buildMessages는 저장소/GPT 호출을 사용하지 않음 (researcher 역할 제외)
+        chatService = new ChatService(null, null, null, null, promptLoader, null, new ObjectMapper(), null, null,
+                contextWindowBuilder, null, null, null, null, null, null, null);
+
+        history = new ArrayList<>(historySize);
+        history.add(chat(0L, "user", "원격 근무 팀의 생산성을 높이기 위한 아이디어를 평가해 주세요."));
+        for (int i = 1; i < historySize; i++) {
+            String sender = EXPERTS[i % EXPERTS.length];
+            history.add(chat((long) i, sender, sender + " 발언 " + i + ": " + "비동기 커뮤니케이션과 문서화 문화를 강화하면 회의 시간을 줄일 수 있습니다. ".repeat(6)));
+        }
+        note = "## 요약\n- 비동기 커뮤니케이션 강화\n- 문서화 문화\n".repeat(20);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> buildMessages() {
+        return chatService.buildMessages(roleKey, "다음 라운드 의견을 제시해 주세요.", history, note, 3, 5);
+    }
+
+    private static ChatEntity chat(Long id, String sender, String message) {
+        return ChatEntity.builder()
+                .id(id)
+                .sender(sender)
+                .message(message)
+                .timestamp("2025-01-01T00:00:00Z")
+                .tokensUsed(0L)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.service;
+
+import com.example.demo.service.GoogleCustomSearchService.SearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GoogleCustomSearchService.formatSearchResults: 제외 도메인 목록 크기별 필터링/포맷팅 비용 (API 호출 제외)
+ */
+@State(Scope.Benchmark)
+public class FormatSearchResultsBenchmark {
+
+    @Param({"5", "500", "5000"})
+    private int excludedDomainCount;
+
+    private List<String> excludedDomains;
+    private List<SearchResult> results;
+
+    @Setup
+    public void setup() {
+        StringBuilder config = new StringBuilder();
+        for (int i = 0; i < excludedDomainCount; i++) {
+            config.append(i == 0 ? "" : ",").append("excluded-").append(i).append(".example.com");
+        }
+        excludedDomains = GoogleCustomSearchService.parseExcludedDomains(config.toString());
+
+        // 검색 API 최대 결과 수 10개, 그중 하나는 제외 도메인, 하나는 Untitled
+        results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(new SearchResult("원격 근무 생산성 연구 " + i, "https://news.example.org/articles/" + i,
+                    "원격 근무 환경에서 팀의 생산성을 측정한 연구 결과를 소개합니다. ".repeat(3)));
+        }
+        results.add(new SearchResult("제외 대상", "https://excluded-1.example.com/page", "제외될 결과"));
+        results.add(new SearchResult("Untitled", "https://blog.example.net/untitled", "제목 없는 결과"));
+    }
+
+    @Benchmark
+    public String formatResults() {
+        return GoogleCustomSearchService.formatResults("원격 근무 생산성", results, excludedDomains);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ModeratorResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * ChatService.parseModerator: 코드 펜스 유무에 따른 사회자 JSON 파싱 비용
+ */
+@State(Scope.Benchmark)
+public class ParseModeratorBenchmark {
+    private static final String JSON = """
+            {"request": [
+              {"roleKey": "creator", "messages": "새로운 협업 도구 아이디어를 구체화해 주세요."},
+              {"roleKey": "critic", "messages": "앞선 제안의 위험 요소를 지적해 주세요."},
+              {"roleKey": "analyst", "messages": "비용 대비 효과를 분석해 주세요."},
+              {"roleKey": "researcher", "messages": "원격 근무 생산성 통계"}
+            ], "shouldEnd": false}
+            """;
+
+    @Param({"plain", "fenced"})
+    private String format;
+
+    private ChatService chatService;
+    private String response;
+
+    @Setup
+    public void setup() {
+        chatService = new ChatService(null, null, null, null, null, null, new ObjectMapper(), null, null, null, null, null, null, null, null, null, null);
+        response = "fenced".equals(format) ? "```json\n" + JSON + "```" : JSON;
+    }
+
+    @Benchmark
+    public ModeratorResponseDTO parseModerator() {
+        return chatService.parseModerator(response);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.loadtest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * 부하 중 1초마다 실행기/커넥션 풀/외부 API 동시 호출 수를 샘플링하여 최대값을 기록합니다.
+ * 대기열이나 커넥션 대기(pending)가 쌓인 자원이 병목입니다.
+ */
+public class BottleneckSampler {
+    private final Map<String, IntSupplier> gauges = new LinkedHashMap<>();
+    private final Map<String, Integer> peaks = new LinkedHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    public BottleneckSampler(ConfigurableApplicationContext context, List<StubHttpServer> stubs) {
+        for (String name : List.of("gptExecutor", "debateExecutor")) {
+            // 가상 스레드 모드의 실행기는 풀/대기열이 없으므로 외부 API 동시 호출 수로 확인
+            if (context.getBean(name) instanceof ThreadPoolTaskExecutor pool) {
+                gauges.put(name + ".active", pool::getActiveCount);
+                gauges.put(name + ".queued", () -> pool.getThreadPoolExecutor().getQueue().size());
+            }
+        }
+        if (context.getBean(DataSource.class) instanceof HikariDataSource hikari) {
+            gauges.put("db.pool.active", () -> hikari.getHikariPoolMXBean() == null ? 0 : hikari.getHikariPoolMXBean().getActiveConnections());
+            gauges.put("db.pool.pending", () -> hikari.getHikariPoolMXBean() == null ? 0 : hikari.getHikariPoolMXBean().getThreadsAwaitingConnection());
+        }
+        PoolingAsyncClientConnectionManager search = context.getBean("searchConnectionManager", PoolingAsyncClientConnectionManager.class);
+        gauges.put("search.pool.leased", () -> search.getTotalStats().getLeased());
+        gauges.put("search.pool.pending", () -> search.getTotalStats().getPending());
+        for (StubHttpServer stub : stubs) {
+            gauges.put(stub.name() + ".in-flight", stub::currentInFlight);
+        }
+        gauges.keySet().forEach(key -> peaks.put(key, 0));
+    }
+
+    public void start() {
+        scheduler.scheduleAtFixedRate(this::sample, 0, 1, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+        sample();
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-28s %8s%n", "resource", "peak");
+        synchronized (peaks) {
+            peaks.forEach((name, peak) -> out.printf("%-28s %8d%n", name, peak));
+        }
+    }
+
+    private void sample() {
+        synchronized (peaks) {
+            gauges.forEach((name, gauge) -> {
+                try {
+                    peaks.merge(name, gauge.getAsInt(), Math::max);
+                } catch (RuntimeException e) {
+                    // 종료 중인 풀 등은 무시
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 스텁 서버의 응답 지연과 실패 주입 설정.
+ * 지연은 중앙값 median-ms, 꼬리 두께 sigma의 로그정규분포를 따릅니다. (sigma=0이면 고정 지연)
+ */
+public class LatencyModel {
+    private final long medianMs;
+    private final double sigma;
+    private final double failureRate;
+
+    public LatencyModel(long medianMs, double sigma, double failureRate) {
+        this.medianMs = medianMs;
+        this.sigma = sigma;
+        this.failureRate = failureRate;
+    }
+
+    public static LatencyModel fromProperties(String prefix, long defaultMedianMs, double defaultSigma) {
+        return new LatencyModel(
+                Long.getLong(prefix + ".latency-median-ms", defaultMedianMs),
+                Double.parseDouble(System.getProperty(prefix + ".latency-sigma", String.valueOf(defaultSigma))),
+                Double.parseDouble(System.getProperty(prefix + ".failure-rate", "0.0")));
+    }
+
+    public void sleep() throws InterruptedException {
+        double value = medianMs * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        Thread.sleep(Math.max(0, Math.round(value)));
+    }
+
+    public boolean shouldFail() {
+        return ThreadLocalRandom.current().nextDouble() < failureRate;
+    }
+
+    @Override
+    public String toString() {
+        return "median=" + medianMs + "ms, sigma=" + sigma + ", failureRate=" + failureRate;
+    }
+}
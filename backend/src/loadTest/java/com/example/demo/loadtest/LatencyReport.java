@@ -0,0 +1,57 @@
+package com.example.demo.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 엔드포인트별 응답 시간 HDR 히스토그램 (밀리초, 유효숫자 3자리)
+ */
+public class LatencyReport {
+    private static final long HIGHEST_TRACKABLE_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final Map<String, Histogram> histograms = new ConcurrentSkipListMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentSkipListMap<>();
+
+    public void record(String endpoint, long startNanos, boolean success) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        histograms.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(HIGHEST_TRACKABLE_MS, 3))
+                .recordValue(Math.min(elapsedMs, HIGHEST_TRACKABLE_MS));
+        if (!success) {
+            errors.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    public void print(PrintStream out, long elapsedMs) {
+        out.printf("%-28s %8s %7s %9s %8s %8s %8s %8s %8s%n",
+                "endpoint", "count", "errors", "req/s", "p50", "p90", "p99", "p99.9", "max");
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram h = entry.getValue();
+            long errorCount = errors.getOrDefault(entry.getKey(), new AtomicLong()).get();
+            out.printf("%-28s %8d %7d %9.2f %8d %8d %8d %8d %8d%n",
+                    entry.getKey(), h.getTotalCount(), errorCount, h.getTotalCount() * 1000.0 / Math.max(1, elapsedMs),
+                    h.getValueAtPercentile(50), h.getValueAtPercentile(90), h.getValueAtPercentile(99),
+                    h.getValueAtPercentile(99.9), h.getMaxValue());
+        }
+        out.println("(단위: ms)");
+    }
+
+    // 엔드포인트별 .hgrm 파일 (HdrHistogram 플로터 등으로 시각화 가능)
+    public void writeDistributions(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            String fileName = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(fileName)), true, "UTF-8")) {
+                entry.getValue().outputPercentileDistribution(out, 1.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.DemoApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 오프라인 종단 간 부하 테스트.
+ * 1. OpenAI / Google Custom Search 스텁 서버를 로컬 포트에 띄움 (지연/실패 주입 가능)
+ * 2. H2 인메모리 DB로 애플리케이션을 기동하고 외부 API 주소를 스텁으로 지정
+ * 3. N명의 가상 사용자가 회원가입 → 질문 → 기록 조회를 동시에 수행
+ * 4. 엔드포인트별 HDR 히스토그램과 자원별 최대 사용량(병목)을 출력
+ *
+ * 실행: ./gradlew loadTest -Ploadtest.users=50 -Ploadtest.openai.latency-median-ms=1500
+ * 옵션은 모두 -Ploadtest.* (또는 -Dloadtest.*) 시스템 프로퍼티로 지정합니다. 목록은 main의 기본값 참고.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("loadtest.users", 20);
+        int questions = Integer.getInteger("loadtest.questions-per-user", 1);
+        int rounds = Integer.getInteger("loadtest.rounds", 3);
+        int rampUpSeconds = Integer.getInteger("loadtest.ramp-up-seconds", 5);
+        List<String> promptKeys = Arrays.asList(System.getProperty("loadtest.prompt-keys", "creator,critic,analyst,researcher").split(","));
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "build/reports/loadtest"));
+
+        LatencyModel openAiLatency = LatencyModel.fromProperties("loadtest.openai", 800, 0.5);
+        LatencyModel googleLatency = LatencyModel.fromProperties("loadtest.google", 300, 0.3);
+        StubOpenAiServer openAi = new StubOpenAiServer(openAiLatency,
+                Integer.getInteger("loadtest.openai.failure-status", 500),
+                Integer.getInteger("loadtest.openai.end-after-rounds", rounds),
+                Integer.getInteger("loadtest.openai.completion-tokens", 300));
+        StubGoogleSearchServer google = new StubGoogleSearchServer(googleLatency);
+        openAi.start();
+        google.start();
+
+        // application.yml보다 우선하도록 커맨드라인 인자로 전달
+        String[] appArgs = appProperties(openAi, google).entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class).run(appArgs);
+        String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+
+        BottleneckSampler sampler = new BottleneckSampler(context, List.of(openAi, google));
+        LatencyReport report = new LatencyReport();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        System.out.println("\n========== [부하 테스트 시작] ==========");
+        System.out.println("users=" + users + ", questions/user=" + questions + ", rounds=" + rounds + ", promptKeys=" + promptKeys);
+        System.out.println("openai: " + openAiLatency + " / google: " + googleLatency);
+
+        ExecutorService virtualUsers = Executors.newFixedThreadPool(users);
+        long startedAt = System.currentTimeMillis();
+        sampler.start();
+        for (int i = 0; i < users; i++) {
+            virtualUsers.submit(new VirtualUser(i, baseUrl, httpClient, objectMapper, report, questions, rounds, promptKeys));
+            if (rampUpSeconds > 0 && users > 1) {
+                Thread.sleep(rampUpSeconds * 1000L / users);
+            }
+        }
+        virtualUsers.shutdown();
+        virtualUsers.awaitTermination(Long.getLong("loadtest.max-duration-minutes", 60), TimeUnit.MINUTES);
+        long elapsedMs = System.currentTimeMillis() - startedAt;
+        sampler.stop();
+
+        Files.createDirectories(reportDir);
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(reportDir.resolve("summary.txt")), true, "UTF-8")) {
+            for (PrintStream out : List.of(System.out, summary)) {
+                out.println("\n========== [부하 테스트 결과] ==========");
+                out.println("소요 시간: " + elapsedMs + "ms, 가상 사용자: " + users);
+                report.print(out, elapsedMs);
+                out.println();
+                sampler.print(out);
+                out.println();
+                out.println("openai-stub: 요청 " + openAi.requests() + ", 주입 실패 " + openAi.failures() + ", 최대 동시 " + openAi.peakInFlight());
+                out.println("google-stub: 요청 " + google.requests() + ", 주입 실패 " + google.failures() + ", 최대 동시 " + google.peakInFlight());
+            }
+        }
+        report.writeDistributions(reportDir);
+        System.out.println("보고서: " + reportDir.toAbsolutePath());
+
+        context.close();
+        openAi.stop();
+        google.stop();
+    }
+
+    private static Map<String, Object> appProperties(StubOpenAiServer openAi, StubGoogleSearchServer google) {
+        Map<String, Object> props = new LinkedHashMap<>();
+        props.put("server.port", 0);
+        // H2 인메모리 DB (MySQL 호환 모드)
+        props.put("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        props.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        props.put("spring.datasource.username", "sa");
+        props.put("spring.datasource.password", "");
+        props.put("spring.datasource.hikari.maximum-pool-size", Integer.getInteger("loadtest.db-pool-size", 10));
+        props.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        props.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        props.put("jwt.secret", "loadtest-jwt-secret-key-at-least-32-characters");
+        // OpenAI 스텁 (실패 주입 시 재시도 대기로 결과가 왜곡되지 않도록 재시도를 짧게)
+        props.put("chat.llm.provider", "openai");
+        props.put("spring.ai.openai.api-key", "loadtest");
+        props.put("spring.ai.openai.base-url", "http://127.0.0.1:" + openAi.port());
+        props.put("spring.ai.retry.max-attempts", Integer.getInteger("loadtest.openai.max-attempts", 2));
+        props.put("spring.ai.retry.backoff.initial-interval", "200ms");
+        // 앱의 속도 제한기는 기본으로 끔 (스텁 처리량 측정이 목적). 429 주입 시험은 -Ploadtest.rate-limit-enabled=true
+        props.put("chat.llm.rate-limit.enabled", System.getProperty("loadtest.rate-limit-enabled", "false"));
+        // 사회자 호출 생략 효과 비교: -Ploadtest.moderator-strategy=llm
+        props.put("chat.moderator.strategy", System.getProperty("loadtest.moderator-strategy", "rules"));
+        // Google Custom Search 스텁 (캐시로 호출이 사라지지 않도록 TTL 0)
+        props.put("google.custom-search.api-key", "loadtest");
+        props.put("google.custom-search.cx-id", "loadtest");
+        props.put("google.custom-search.base-url", google.baseUrl());
+        props.put("google.custom-search.cache.ttl-seconds", System.getProperty("loadtest.google.cache-ttl-seconds", "0"));
+        props.put("google.custom-search.daily-quota", 0);
+        props.put("chat.executor.mode", System.getProperty("loadtest.executor-mode", "platform"));
+        return props;
+    }
+}
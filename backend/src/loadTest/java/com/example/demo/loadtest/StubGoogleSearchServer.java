@@ -0,0 +1,46 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+
+/**
+ * Google Custom Search API(/customsearch/v1) 스텁. 매 요청마다 10개의 결과를 돌려줍니다.
+ */
+public class StubGoogleSearchServer extends StubHttpServer {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyModel latency;
+
+    public StubGoogleSearchServer(LatencyModel latency) throws IOException {
+        super("google-stub", "/customsearch/v1");
+        this.latency = latency;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + port() + "/customsearch/v1";
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange) throws Exception {
+        latency.sleep();
+        if (latency.shouldFail()) {
+            recordFailure();
+            respond(exchange, 503, "{\"error\": {\"code\": 503, \"message\": \"injected failure\"}}");
+            return;
+        }
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.putObject("searchInformation").put("searchTime", 0.1).put("totalResults", "10");
+        ArrayNode items = response.putArray("items");
+        for (int i = 1; i <= 10; i++) {
+            items.addObject()
+                    .put("title", "검색 결과 " + i)
+                    .put("link", "https://example.org/articles/" + i)
+                    .put("snippet", "원격 근무 환경에서 팀의 생산성을 측정한 연구 결과 " + i + "번을 소개합니다.");
+        }
+        respond(exchange, 200, objectMapper.writeValueAsString(response));
+    }
+}
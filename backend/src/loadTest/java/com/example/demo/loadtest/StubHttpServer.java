@@ -0,0 +1,96 @@
+package com.example.demo.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JDK 내장 HttpServer 기반 스텁 서버의 공통 부분.
+ * 동시에 처리 중인 요청 수의 최대값을 기록하여 앱이 외부 API로 얼마나 병렬 호출하는지 보여줍니다.
+ */
+public abstract class StubHttpServer {
+    private final String name;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    protected StubHttpServer(String name, String path) throws IOException {
+        this.name = name;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        this.server.createContext(path, this::dispatch);
+        this.server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("[" + name + "] http://127.0.0.1:" + port());
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int currentInFlight() {
+        return inFlight.get();
+    }
+
+    public int peakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long failures() {
+        return failures.get();
+    }
+
+    protected abstract void handle(HttpExchange exchange) throws Exception;
+
+    protected void recordFailure() {
+        failures.incrementAndGet();
+    }
+
+    protected void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            handle(exchange);
+        } catch (Exception e) {
+            respond(exchange, 500, "{\"error\": {\"message\": \"stub failure: " + e.getClass().getSimpleName() + "\"}}");
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+}
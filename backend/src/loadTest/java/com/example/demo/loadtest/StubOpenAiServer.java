@@ -0,0 +1,103 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OpenAI Chat Completions API(/v1/chat/completions) 스텁.
+ * response_format이 있는 요청(사회자)에는 스키마에 맞는 JSON을, 나머지에는 지정 길이의 텍스트를 돌려줍니다.
+ * 실패 주입 시 failure-status(기본 500) 응답을 반환합니다. 429이면 OpenAI처럼 Retry-After와 재시도 안내를 함께 보냅니다.
+ */
+public class StubOpenAiServer extends StubHttpServer {
+    private static final Pattern ROUND_PATTERN = Pattern.compile("현재 라운드: (\\d+) / 최대 라운드: (\\d+)");
+    private static final List<String> ROLE_KEYS = List.of("creator", "critic", "analyst", "researcher");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyModel latency;
+    private final int failureStatus;
+    private final int endAfterRounds;
+    private final int completionTokens;
+    private final AtomicLong ids = new AtomicLong();
+
+    public StubOpenAiServer(LatencyModel latency, int failureStatus, int endAfterRounds, int completionTokens) throws IOException {
+        super("openai-stub", "/v1/chat/completions");
+        this.latency = latency;
+        this.failureStatus = failureStatus;
+        this.endAfterRounds = endAfterRounds;
+        this.completionTokens = completionTokens;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange) throws Exception {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        latency.sleep();
+        if (latency.shouldFail()) {
+            recordFailure();
+            if (failureStatus == 429) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 429, "{\"error\": {\"message\": \"Rate limit reached. Please try again in 1s.\", \"type\": \"requests\"}}");
+                return;
+            }
+            respond(exchange, failureStatus, "{\"error\": {\"message\": \"injected failure\", \"type\": \"server_error\"}}");
+            return;
+        }
+
+        String content = request.has("response_format") ? moderatorJson(request) : expertText();
+        int promptTokens = request.path("messages").toString().length() / 4;
+        int outputTokens = content.length() / 4;
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("id", "chatcmpl-stub-" + ids.incrementAndGet());
+        response.put("object", "chat.completion");
+        response.put("created", System.currentTimeMillis() / 1000);
+        response.put("model", request.path("model").asText("stub"));
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        choice.put("finish_reason", "stop");
+        ObjectNode usage = response.putObject("usage");
+        usage.put("prompt_tokens", promptTokens);
+        usage.put("completion_tokens", outputTokens);
+        usage.put("total_tokens", promptTokens + outputTokens);
+        usage.putObject("prompt_tokens_details").put("cached_tokens", 0);
+        respond(exchange, 200, objectMapper.writeValueAsString(response));
+    }
+
+    private String moderatorJson(JsonNode request) throws IOException {
+        int round = 1;
+        for (JsonNode message : request.path("messages")) {
+            Matcher matcher = ROUND_PATTERN.matcher(message.path("content").asText(""));
+            if (matcher.find()) {
+                round = Integer.parseInt(matcher.group(1));
+            }
+        }
+        boolean shouldEnd = round >= endAfterRounds;
+
+        ObjectNode body = objectMapper.createObjectNode();
+        ArrayNode items = body.putArray("request");
+        if (!shouldEnd) {
+            for (String roleKey : ROLE_KEYS) {
+                items.addObject()
+                        .put("roleKey", roleKey)
+                        .put("messages", "researcher".equals(roleKey) ? "원격 근무 생산성 통계" : round + "라운드 의견을 제시해 주세요.");
+            }
+        }
+        body.put("shouldEnd", shouldEnd);
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private String expertText() {
+        int tokens = Math.max(1, completionTokens + ThreadLocalRandom.current().nextInt(-completionTokens / 4, completionTokens / 4 + 1));
+        return "[openai-stub] " + "load test response text. ".repeat(Math.max(1, tokens / 6));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.tracing.CriticalPathAnalyzer;
+import com.example.demo.tracing.CriticalPathAnalyzer.CriticalPath;
+import com.example.demo.tracing.CriticalPathAnalyzer.Segment;
+import com.example.demo.tracing.FileSpanExporter;
+import com.example.demo.tracing.SpanData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 토론 트레이스 파일(chat.tracing.file-path)의 트레이스별 임계 경로 출력.
+ * ./gradlew traceReport -PtraceFile=build/traces/spans.ndjson [-PtraceId=<debateId>]
+ */
+public final class TraceReport {
+
+    private TraceReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("사용법: TraceReport <spans.ndjson> [traceId]");
+            System.exit(1);
+        }
+        Map<String, List<SpanData>> traces = FileSpanExporter.readTraces(Path.of(args[0]), new ObjectMapper());
+        String onlyTrace = args.length > 1 && !args[1].isBlank() ? args[1] : null;
+        for (Map.Entry<String, List<SpanData>> trace : traces.entrySet()) {
+            if (onlyTrace != null && !onlyTrace.equals(trace.getKey())) {
+                continue;
+            }
+            CriticalPath path = CriticalPathAnalyzer.analyze(trace.getValue());
+            System.out.printf("%n== trace %s: %.1f ms, 스팬 %d개%n", path.traceId(), path.totalMicros() / 1000.0,
+                    trace.getValue().size());
+            for (Segment segment : path.segments()) {
+                System.out.printf("  +%9.1f ms %9.1f ms  %s%n", segment.startOffsetMicros() / 1000.0,
+                        segment.durationMicros() / 1000.0, segment.label());
+            }
+            System.out.println("  -- 종류별 임계 경로 점유");
+            for (Map.Entry<String, Long> entry : path.byLabel().entrySet()) {
+                System.out.printf("  %9.1f ms %5.1f%%  %s%n", entry.getValue() / 1000.0,
+                        path.totalMicros() > 0 ? entry.getValue() * 100.0 / path.totalMicros() : 0.0, entry.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 가상 사용자 시나리오: 회원가입 → 질문(토론) N회 → 대화방 목록 → 대화 기록 조회
+ */
+public class VirtualUser implements Runnable {
+    private static final Duration ASK_TIMEOUT = Duration.ofMinutes(10);
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final int id;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final LatencyReport report;
+    private final int questions;
+    private final int rounds;
+    private final List<String> promptKeys;
+
+    public VirtualUser(int id, String baseUrl, HttpClient httpClient, ObjectMapper objectMapper, LatencyReport report,
+                       int questions, int rounds, List<String> promptKeys) {
+        this.id = id;
+        this.baseUrl = baseUrl;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.report = report;
+        this.questions = questions;
+        this.rounds = rounds;
+        this.promptKeys = promptKeys;
+    }
+
+    @Override
+    public void run() {
+        try {
+            Map<String, Object> register = new LinkedHashMap<>();
+            register.put("username", "loadtest-" + id + "-" + System.nanoTime());
+            register.put("email", "loadtest-" + id + "@example.com");
+            register.put("password", "loadtest-password");
+            JsonNode auth = send("POST /api/auth/register", "/api/auth/register", register, null, DEFAULT_TIMEOUT);
+            if (auth == null || !auth.hasNonNull("token")) {
+                return;
+            }
+            String token = auth.get("token").asText();
+
+            for (int i = 0; i < questions; i++) {
+                Map<String, Object> question = new LinkedHashMap<>();
+                question.put("question", "원격 근무 팀의 생산성을 높이는 아이디어 " + i + "번을 평가해 주세요.");
+                question.put("promptKeys", promptKeys);
+                question.put("conversationRounds", rounds);
+                send("POST /api/gpt/question", "/api/gpt/question", question, token, ASK_TIMEOUT);
+            }
+
+            JsonNode rooms = send("GET /api/chat-rooms", "/api/chat-rooms", null, token, DEFAULT_TIMEOUT);
+            if (rooms != null && rooms.isArray()) {
+                for (JsonNode room : rooms) {
+                    long roomId = room.path("id").asLong();
+                    send("GET /api/chat-rooms/{id}/history", "/api/chat-rooms/" + roomId + "/history", null, token, DEFAULT_TIMEOUT);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 요청 하나를 보내고 응답 시간을 기록 (2xx가 아니거나 예외면 오류로 집계, 본문은 JSON으로 파싱)
+    private JsonNode send(String endpoint, String path, Object body, String token, Duration timeout) throws InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        long start = System.nanoTime();
+        try {
+            if (body != null) {
+                builder.header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+            } else {
+                builder.GET();
+            }
+            HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            boolean success = response.statusCode() / 100 == 2;
+            report.record(endpoint, start, success);
+            if (!success) {
+                System.err.println("[vu-" + id + "] " + endpoint + " → " + response.statusCode());
+                return null;
+            }
+            return response.body().isEmpty() ? null : objectMapper.readTree(response.body());
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            report.record(endpoint, start, false);
+            System.err.println("[vu-" + id + "] " + endpoint + " 실패: " + e.getMessage());
+            return null;
+        }
+    }
+}
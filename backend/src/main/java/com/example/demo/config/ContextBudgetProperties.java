@@ -0,0 +1,33 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 역할별 프롬프트 토큰 예산 설정 (chat.context.*)
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "chat.context")
+public class ContextBudgetProperties {
+    // 역할별 예산이 없을 때 사용하는 기본 예산 (시스템 프롬프트 포함)
+    private int defaultBudget = 6000;
+    // 역할별 예산 (예: moderator, summarizer)
+    private Map<String, Integer> budgets = new HashMap<>();
+    // 예산에서 제외된 이전 발언들을 접은 다이제스트의 최대 토큰 수
+    private int digestMaxTokens = 600;
+    // 다이제스트에 포함할 발언당 최대 글자 수
+    private int digestSnippetChars = 120;
+    // 전체 요약을 구간으로 나눌 때 이전 구간의 요약(기존 노트)을 위해 남겨두는 토큰 수
+    private int summaryReserveTokens = 1500;
+
+    public int budgetFor(String roleKey) {
+        return budgets.getOrDefault(roleKey, defaultBudget);
+    }
+}
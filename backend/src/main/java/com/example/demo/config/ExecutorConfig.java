@@ -1,24 +1,126 @@
 package com.example.demo.config;
 
+import com.example.demo.tracing.TraceContextTaskDecorator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
 
+@Slf4j
 @Configuration
 public class ExecutorConfig {
 
+    // platform: 고정 크기 스레드 풀, virtual: 가상 스레드 (Java 21 이상, 미만이면 platform으로 대체)
+    @Value("${chat.executor.mode:platform}")
+    private String executorMode;
+
+    private boolean virtualThreads;
+
+    @PostConstruct
+    public void init() {
+        virtualThreads = "virtual".equalsIgnoreCase(executorMode);
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            log.warn("가상 스레드는 Java 21 이상에서만 지원됩니다. platform 모드로 실행합니다. (현재: {})",
+                    Runtime.version().feature());
+            virtualThreads = false;
+        }
+        log.info("실행 모드: {}", virtualThreads ? "virtual" : "platform");
+    }
+
+    // active/queue 지표는 Spring Boot가 ThreadPoolTaskExecutor 빈마다 executor.*{name=빈 이름} 으로 자동 등록
     @Bean(name = "gptExecutor")
-    public Executor gptExecutor() {
+    public Executor gptExecutor(MeterRegistry meterRegistry) {
+        if (virtualThreads) {
+            return virtualThreadExecutor("gpt-");
+        }
         ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
         exec.setCorePoolSize(4);
         exec.setMaxPoolSize(8);
         exec.setQueueCapacity(100);
         exec.setThreadNamePrefix("gpt-");
+        exec.setTaskDecorator(contextPropagatingDecorator());
+        exec.setRejectedExecutionHandler(countingAbortPolicy(meterRegistry, "gptExecutor"));
         exec.initialize();
         return exec;
     }
-}
 
+    // 스트리밍/비동기 토론의 라운드 루프를 실행하는 스레드 (요청 스레드와 분리)
+    @Bean(name = "debateExecutor")
+    public Executor debateExecutor(MeterRegistry meterRegistry) {
+        if (virtualThreads) {
+            return virtualThreadExecutor("debate-");
+        }
+        ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+        exec.setCorePoolSize(4);
+        exec.setMaxPoolSize(16);
+        exec.setQueueCapacity(50);
+        exec.setThreadNamePrefix("debate-");
+        exec.setTaskDecorator(contextPropagatingDecorator());
+        exec.setRejectedExecutionHandler(countingAbortPolicy(meterRegistry, "debateExecutor"));
+        exec.initialize();
+        return exec;
+    }
+
+    // 배치 토론 레인 (DebateBatchService). 대화형 토론과 실행기를 나누고 동시에 진행하는 배치 질문 수를 제한
+    // 실행 모드와 관계없이 고정 크기 풀을 사용하며, 재시작 시 남은 질문을 모두 다시 넣으므로 대기열은 제한하지 않음
+    @Bean(name = "batchExecutor")
+    public Executor batchExecutor(@Value("${chat.batch.concurrency:2}") int concurrency) {
+        ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+        exec.setCorePoolSize(concurrency);
+        exec.setMaxPoolSize(concurrency);
+        exec.setThreadNamePrefix("batch-");
+        exec.setTaskDecorator(contextPropagatingDecorator());
+        exec.initialize();
+        return exec;
+    }
+
+    // 가상 스레드 모드에서는 Tomcat 요청 처리도 가상 스레드로 실행
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            if (virtualThreads) {
+                protocolHandler.setExecutor(new VirtualThreadExecutor("tomcat-handler-"));
+            }
+        };
+    }
+
+    // 대기열이 가득 차 거부된 작업 수를 executor.rejected{name} 으로 기록한 뒤 기존과 같이 예외 발생
+    private RejectedExecutionHandler countingAbortPolicy(MeterRegistry meterRegistry, String name) {
+        Counter rejected = Counter.builder("executor.rejected")
+                .description("대기열이 가득 차 거부된 작업 수")
+                .tag("name", name)
+                .register(meterRegistry);
+        RejectedExecutionHandler abort = new ThreadPoolExecutor.AbortPolicy();
+        return (task, executor) -> {
+            rejected.increment();
+            abort.rejectedExecution(task, executor);
+        };
+    }
+
+    // 제출한 스레드의 MDC(debateId)와 현재 스팬을 작업 스레드로 전달 (ExpertInvoker의 헤지 타이머에서도 사용)
+    public static TaskDecorator contextPropagatingDecorator() {
+        TaskDecorator mdc = new MdcTaskDecorator();
+        TaskDecorator trace = new TraceContextTaskDecorator();
+        return runnable -> mdc.decorate(trace.decorate(runnable));
+    }
 
+    // 가상 스레드는 작업마다 새로 생성되므로 풀 크기 대신 GptService의 세마포어와 검색 HTTP 커넥션 풀 크기로 동시 호출 수를 제한
+    private Executor virtualThreadExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor exec = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        exec.setVirtualThreads(true);
+        exec.setTaskDecorator(contextPropagatingDecorator());
+        return exec;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.demo.config;
 
 import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Component;
@@ -11,11 +12,14 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
+@Slf4j
 @Component
 public class PromptLoader {
     private final ResourceLoader resourceLoader;
     private Map<String, String> prompts;
     private Map<String, String> instructions;
+    // 역할별로 미리 합성한 시스템 프롬프트 (불변, 호출마다 동일한 바이트 유지)
+    private Map<String, String> systemPrefixes;
 
     public PromptLoader(ResourceLoader resourceLoader) {
         this.resourceLoader = resourceLoader;
@@ -40,16 +44,16 @@ public class PromptLoader {
                     String key = fileName.substring(0, fileName.lastIndexOf('.'));
                     prompts.put(key, content);
 
-                    System.out.println("마크다운 파일 로드 성공: " + fileName);
+                    log.info("마크다운 파일 로드 성공: {}", fileName);
                 } else {
-                    System.err.println("마크다운 파일을 찾을 수 없습니다: " + fileName);
+                    log.error("마크다운 파일을 찾을 수 없습니다: {}", fileName);
                 }
             } catch (Exception e) {
-                System.err.println("마크다운 파일 로드 실패: " + fileName + " - " + e.getMessage());
+                log.error("마크다운 파일 로드 실패: {} - {}", fileName, e.getMessage());
             }
         }
 
-        System.out.println("총 " + prompts.size() + "개의 마크다운 프롬프트를 로드했습니다.");
+        log.info("총 {}개의 마크다운 프롬프트를 로드했습니다.", prompts.size());
 
         // 지시사항(instructions) 로드
         String[] instructionFiles = {"debate_response.md"};
@@ -62,14 +66,32 @@ public class PromptLoader {
 
                     String key = fileName.substring(0, fileName.lastIndexOf('.'));
                     instructions.put(key, content);
-                    System.out.println("지시사항 파일 로드 성공: " + fileName);
+                    log.info("지시사항 파일 로드 성공: {}", fileName);
                 } else {
-                    System.err.println("지시사항 파일을 찾을 수 없습니다: " + fileName);
+                    log.error("지시사항 파일을 찾을 수 없습니다: {}", fileName);
                 }
             } catch (Exception e) {
-                System.err.println("지시사항 파일 로드 실패: " + fileName + " - " + e.getMessage());
+                log.error("지시사항 파일 로드 실패: {} - {}", fileName, e.getMessage());
             }
         }
+
+        composeSystemPrefixes();
+    }
+
+    // 프로바이더의 프롬프트 프리픽스 캐시가 적중하도록 시스템 프롬프트를 한 번만 합성해 고정
+    private void composeSystemPrefixes() {
+        Map<String, String> composed = new HashMap<>();
+        String instruction = instructions.get("debate_response");
+        for (Map.Entry<String, String> entry : prompts.entrySet()) {
+            String key = entry.getKey();
+            String prefix = entry.getValue();
+            // 사회자는 JSON 형식 유지를 위해, 요약자는 자체 출력 형식을 위해 debate_response 지시사항을 붙이지 않음
+            if (!"moderator".equals(key) && !"summarizer".equals(key) && instruction != null) {
+                prefix = prefix + "\n\n" + instruction;
+            }
+            composed.put(key, prefix.intern());
+        }
+        this.systemPrefixes = Map.copyOf(composed);
     }
 
     public Map<String, String> getPrompts() {
@@ -80,6 +102,10 @@ public class PromptLoader {
         return this.prompts.get(key);
     }
 
+    public String getSystemPrefix(String key) {
+        return this.systemPrefixes.get(key);
+    }
+
     public String getInstruction(String key) {
         return this.instructions.get(key);
     }
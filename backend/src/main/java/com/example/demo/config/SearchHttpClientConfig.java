@@ -0,0 +1,87 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Google Custom Search 호출용 비동기 HTTP 클라이언트.
+ * 커넥션을 풀에서 재사용하고, 응답을 기다리는 동안 호출 스레드를 점유하지 않습니다.
+ */
+@Configuration
+public class SearchHttpClientConfig {
+
+    // 검색 API는 단일 호스트이므로 호스트당 최대 커넥션 수가 곧 동시 호출 수 제한
+    @Value("${google.custom-search.max-concurrent-requests:16}")
+    private int maxConcurrentRequests;
+
+    @Value("${google.custom-search.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    // 풀에서 커넥션을 얻기까지 기다리는 최대 시간
+    @Value("${google.custom-search.http.connection-request-timeout-ms:2000}")
+    private long connectionRequestTimeoutMs;
+
+    // 요청 전송 후 응답 데이터를 기다리는 최대 시간
+    @Value("${google.custom-search.http.response-timeout-ms:5000}")
+    private long responseTimeoutMs;
+
+    @Value("${google.custom-search.http.idle-evict-seconds:30}")
+    private long idleEvictSeconds;
+
+    @Bean(destroyMethod = "close")
+    public PoolingAsyncClientConnectionManager searchConnectionManager() {
+        return PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConcurrentRequests)
+                .setMaxConnPerRoute(maxConcurrentRequests)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient searchHttpClient(PoolingAsyncClientConnectionManager searchConnectionManager) {
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(searchConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .build();
+        client.start();
+        return client;
+    }
+
+    // 커넥션 풀 상태를 /actuator/metrics 에 노출
+    @Bean
+    public MeterBinder searchConnectionPoolMetrics(PoolingAsyncClientConnectionManager searchConnectionManager) {
+        return registry -> {
+            Gauge.builder("google.search.pool.leased", searchConnectionManager, m -> m.getTotalStats().getLeased())
+                    .description("사용 중인 검색 API 커넥션 수")
+                    .register(registry);
+            Gauge.builder("google.search.pool.pending", searchConnectionManager, m -> m.getTotalStats().getPending())
+                    .description("커넥션을 기다리는 검색 요청 수")
+                    .register(registry);
+            Gauge.builder("google.search.pool.available", searchConnectionManager, m -> m.getTotalStats().getAvailable())
+                    .description("유휴 상태의 검색 API 커넥션 수")
+                    .register(registry);
+            Gauge.builder("google.search.pool.max", searchConnectionManager, m -> m.getTotalStats().getMax())
+                    .description("검색 API 커넥션 풀 최대 크기")
+                    .register(registry);
+        };
+    }
+}
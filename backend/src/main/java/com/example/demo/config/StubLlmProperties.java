@@ -0,0 +1,62 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 로컬 스텁 LLM 프로바이더 설정 (chat.llm.stub.*)
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "chat.llm.stub")
+public class StubLlmProperties {
+    // 난수 시드. 같은 시드와 같은 호출 순서면 지연/토큰/오류가 동일하게 재현됨
+    private long seed = 42L;
+    // 호출이 예외로 실패할 확률 (0.0 ~ 1.0)
+    private double errorRate = 0.0;
+    // 호출이 요청 한도 초과(429)로 거절될 확률과 이때 알려줄 재시도 대기 시간 (속도 제한기 동작 확인용)
+    private double rateLimitRate = 0.0;
+    private long retryAfterMs = 1000;
+    // 역할별 설정이 없을 때 사용하는 응답 지연 분포
+    private Latency latency = new Latency();
+    // 역할별 응답 지연 분포 (예: moderator, summarizer)
+    private Map<String, Latency> roleLatency = new HashMap<>();
+    // 응답(completion) 토큰 수 범위
+    private int completionTokensMin = 150;
+    private int completionTokensMax = 450;
+    private Moderator moderator = new Moderator();
+
+    public Latency latencyFor(String role) {
+        return roleLatency.getOrDefault(role, latency);
+    }
+
+    @Getter
+    @Setter
+    public static class Latency {
+        // fixed: median-ms 고정, uniform: min-ms ~ max-ms 균등, lognormal: median-ms 중심, sigma 만큼 꼬리가 긴 분포
+        private String distribution = "lognormal";
+        private long medianMs = 1500;
+        private double sigma = 0.5;
+        private long minMs = 0;
+        private long maxMs = 30000;
+    }
+
+    @Getter
+    @Setter
+    public static class Moderator {
+        // 사회자가 매 라운드 발언을 요청할 역할 (ChatService에서 요청의 promptKeys로 다시 걸러짐)
+        private List<String> roleKeys = new ArrayList<>(List.of("creator", "critic", "analyst", "researcher"));
+        // 이 라운드에 도달하면 shouldEnd=true 응답
+        private int endAfterRounds = 3;
+        // 사회자 응답을 깨진 JSON으로 돌려줄 확률 (파싱 실패 경로 확인용)
+        private double malformedRate = 0.0;
+    }
+}
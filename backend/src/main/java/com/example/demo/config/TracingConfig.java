@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import com.example.demo.tracing.FileSpanExporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * 토론 추적 내보내기 설정.
+ * 메모리 내보내기(InMemorySpanExporter)는 항상 등록되며, chat.tracing.file-path를 지정하면 NDJSON 파일로도 내보냅니다.
+ * 다른 수집 시스템으로 보내려면 SpanExporter 빈을 추가로 등록하면 됩니다.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "chat.tracing", name = "file-path")
+    public FileSpanExporter fileSpanExporter(@Value("${chat.tracing.file-path}") String filePath,
+                                             ObjectMapper objectMapper) {
+        return new FileSpanExporter(Path.of(filePath), objectMapper);
+    }
+}
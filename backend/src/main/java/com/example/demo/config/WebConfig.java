@@ -4,7 +4,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -21,11 +20,6 @@ public class WebConfig implements WebMvcConfigurer {
                 .maxAge(3600); // 6. Pre-flight 요청의 결과를 캐시할 시간을 초 단위로 설정합니다.
     }
     
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
-    
     @Bean
     public ObjectMapper objectMapper(Jackson2ObjectMapperBuilder builder) {
         return builder.build();
@@ -1,18 +1,47 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BatchRequestDTO;
 import com.example.demo.dto.ChatRequestDTO;
 import com.example.demo.dto.ChatResponseDTO;
+import com.example.demo.dto.DebateJobDTO;
 import com.example.demo.entity.ChatRoom;
 import com.example.demo.entity.Member;
 import com.example.demo.service.ChatRoomService;
 import com.example.demo.service.ChatService;
+import com.example.demo.service.DebateBatchService;
+import com.example.demo.service.DebateCancellation;
+import com.example.demo.service.DebateCancelledException;
+import com.example.demo.service.DebateJobService;
+import com.example.demo.tracing.CriticalPathAnalyzer;
+import com.example.demo.tracing.InMemorySpanExporter;
+import com.example.demo.tracing.SpanData;
 import com.example.demo.util.SecurityUtil;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping(value = "/api", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -21,11 +50,38 @@ public class GptController {
     private final ChatService chatService;
     private final ChatRoomService chatRoomService;
     private final SecurityUtil securityUtil;
+    private final Executor debateExecutor;
+    private final DebateJobService debateJobService;
+    private final InMemorySpanExporter spanStore;
+    private final DebateBatchService debateBatchService;
+    // SSE 하트비트 전송 (끊긴 연결은 전송 실패로만 알 수 있으므로 주기적으로 전송해 감지)
+    private final ScheduledExecutorService heartbeatTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sse-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    public GptController(ChatService chatService, ChatRoomService chatRoomService, SecurityUtil securityUtil) {
+    @Value("${chat.stream.timeout-ms:600000}")
+    private long streamTimeoutMs;
+
+    @Value("${chat.stream.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    public GptController(ChatService chatService, ChatRoomService chatRoomService, SecurityUtil securityUtil,
+                         @Qualifier("debateExecutor") Executor debateExecutor, DebateJobService debateJobService,
+                         InMemorySpanExporter spanStore, DebateBatchService debateBatchService) {
         this.chatService = chatService;
         this.chatRoomService = chatRoomService;
         this.securityUtil = securityUtil;
+        this.debateExecutor = debateExecutor;
+        this.debateJobService = debateJobService;
+        this.spanStore = spanStore;
+        this.debateBatchService = debateBatchService;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatTimer.shutdownNow();
     }
 
     // 멤버 관련 엔드포인트 (인증 필요)
@@ -98,6 +154,252 @@ public class GptController {
         }
     }
 
+    // 토론 스트리밍: 사회자/전문가/요약 메시지를 생성 즉시 SSE 이벤트로 전송
+    @PostMapping(value = "/gpt/question/stream",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamQuestion(@RequestBody ChatRequestDTO requestDto) {
+        // 인증 정보는 요청 스레드에서만 조회 가능
+        Long userId = securityUtil.getCurrentUserId();
+        requestDto.setUserId(userId);
+
+        // 클라이언트 연결이 끊기면(전송 실패, 시간 초과, 오류) 토론을 취소하여 남은 LLM/검색 호출 비용을 아낌
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        DebateCancellation cancellation = new DebateCancellation();
+        emitter.onTimeout(() -> cancellation.cancel("stream timeout"));
+        emitter.onError(e -> cancellation.cancel("client disconnected"));
+        ScheduledFuture<?> heartbeat = heartbeatTimer.scheduleAtFixedRate(() -> {
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                cancellation.cancel("client disconnected");
+            }
+        }, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        emitter.onCompletion(() -> heartbeat.cancel(false));
+
+        try {
+            debateExecutor.execute(() -> {
+                try {
+                    ChatResponseDTO response = chatService.askQuestion(requestDto,
+                            event -> sendEvent(emitter, cancellation, event.getType(), event), cancellation);
+                    sendEvent(emitter, cancellation, "done", response);
+                    emitter.complete();
+                } catch (DebateCancelledException e) {
+                    // 연결이 이미 끊긴 경우가 대부분이므로 종료만 처리
+                    emitter.complete();
+                } catch (Exception e) {
+                    sendEvent(emitter, cancellation, "error", Map.of("error", "오류가 발생했습니다: " + e.getMessage()));
+                    emitter.complete();
+                } finally {
+                    heartbeat.cancel(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // 토론 실행기 대기열이 가득 찬 경우 (/gpt/jobs의 503과 같은 메시지를 error 이벤트로 보내고 종료)
+            heartbeat.cancel(false);
+            sendEvent(emitter, cancellation, "error", Map.of("error", "대기 중인 토론이 너무 많습니다. 잠시 후 다시 시도해주세요."));
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private void sendEvent(SseEmitter emitter, DebateCancellation cancellation, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트 연결이 끊긴 경우 토론을 취소
+            cancellation.cancel("client disconnected");
+        }
+    }
+
+    // 비동기 토론 작업: 작업 ID를 즉시 반환하고 백그라운드에서 토론 진행
+    @PostMapping(value = "/gpt/jobs", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> submitDebateJob(@RequestBody ChatRequestDTO requestDto) {
+        try {
+            Long userId = securityUtil.getCurrentUserId();
+            requestDto.setUserId(userId);
+
+            String jobId = debateJobService.submit(requestDto);
+            return ResponseEntity.accepted().body(Map.of("jobId", jobId));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "대기 중인 토론이 너무 많습니다. 잠시 후 다시 시도해주세요."));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 작업 상태 및 진행 상황 조회 (현재 라운드, 역할별 완료 수)
+    @GetMapping("/gpt/jobs/{jobId}")
+    public ResponseEntity<?> getDebateJob(@PathVariable String jobId) {
+        try {
+            Long userId = securityUtil.getCurrentUserId();
+            return debateJobService.getJob(jobId, userId)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 작업 결과 조회: 완료 전에는 202와 함께 현재 상태를 반환
+    @GetMapping("/gpt/jobs/{jobId}/result")
+    public ResponseEntity<?> getDebateJobResult(@PathVariable String jobId) {
+        try {
+            Long userId = securityUtil.getCurrentUserId();
+            DebateJobDTO job = debateJobService.getJob(jobId, userId).orElse(null);
+            if (job == null) {
+                return ResponseEntity.notFound().build();
+            }
+            if ("COMPLETED".equals(job.getStatus())) {
+                return ResponseEntity.ok(job.getResult());
+            }
+            if ("FAILED".equals(job.getStatus())) {
+                return ResponseEntity.internalServerError()
+                        .body(new ChatResponseDTO("오류가 발생했습니다: " + job.getError()));
+            }
+            if ("CANCELLED".equals(job.getStatus())) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "취소된 토론입니다."));
+            }
+            return ResponseEntity.accepted().body(job);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 작업 취소: 진행 중인 LLM/검색 호출을 중단하고 CANCELLED로 종료 (이미 저장된 메시지는 유지)
+    @PostMapping("/gpt/jobs/{jobId}/cancel")
+    public ResponseEntity<?> cancelDebateJob(@PathVariable String jobId) {
+        try {
+            Long userId = securityUtil.getCurrentUserId();
+            return debateJobService.cancel(jobId, userId)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 배치 토론: 질문 목록을 같은 설정으로 저우선순위 레인에서 토론하고 결과를 NDJSON으로 기록
+    @PostMapping(value = "/gpt/batches", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> submitBatch(@RequestBody BatchRequestDTO request) {
+        try {
+            Long userId = securityUtil.getCurrentUserId();
+            String batchId = debateBatchService.submit(userId, request);
+            return ResponseEntity.accepted().body(Map.of("batchId", batchId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 파일 업로드로 배치 등록 (한 줄에 질문 하나, 빈 줄 무시)
+    @PostMapping(value = "/gpt/batches", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> submitBatchFile(@RequestParam("file") MultipartFile file,
+                                             @RequestParam(required = false) List<String> promptKeys,
+                                             @RequestParam(required = false) Integer conversationRounds) {
+        try {
+            Long userId = securityUtil.getCurrentUserId();
+            BatchRequestDTO request = new BatchRequestDTO();
+            request.setQuestions(new String(file.getBytes(), StandardCharsets.UTF_8).lines().toList());
+            request.setPromptKeys(promptKeys);
+            request.setConversationRounds(conversationRounds);
+            String batchId = debateBatchService.submit(userId, request);
+            return ResponseEntity.accepted().body(Map.of("batchId", batchId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 배치 진행 상황 (전체/성공/실패 질문 수)
+    @GetMapping("/gpt/batches/{batchId}")
+    public ResponseEntity<?> getBatch(@PathVariable String batchId) {
+        try {
+            Long userId = securityUtil.getCurrentUserId();
+            return debateBatchService.getStatus(batchId, userId)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 지금까지 기록된 배치 결과 (질문 하나당 한 줄, 완료 순서)
+    @GetMapping(value = "/gpt/batches/{batchId}/results", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> getBatchResults(@PathVariable String batchId) {
+        try {
+            Long userId = securityUtil.getCurrentUserId();
+            Path results = debateBatchService.getResults(batchId, userId).orElse(null);
+            if (results == null) {
+                return ResponseEntity.notFound().build();
+            }
+            if (!Files.exists(results)) {
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body("");
+            }
+            if (!Files.isReadable(results)) {
+                throw new IOException("배치 결과 파일을 읽을 수 없습니다: " + batchId);
+            }
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(new FileSystemResource(results));
+        } catch (Exception e) {
+            // 오류 응답은 다른 엔드포인트와 같은 JSON 본문으로 반환
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 대화방의 최근 토론 트레이스 목록 (종료된 토론만, 최근 순)
+    @GetMapping("/traces")
+    public ResponseEntity<?> getTraces(@RequestParam Long chatRoomId) {
+        try {
+            Long userId = securityUtil.getCurrentUserId();
+            List<Map<String, Object>> traces = spanStore.findRootSpans("chatRoomId", chatRoomId).stream()
+                    .filter(root -> userId.equals(root.attributes().get("userId")))
+                    .map(root -> {
+                        Map<String, Object> summary = new LinkedHashMap<>();
+                        summary.put("traceId", root.traceId());
+                        summary.put("startedAt", Instant.EPOCH.plus(root.startEpochMicros(), ChronoUnit.MICROS).toString());
+                        summary.put("durationMs", root.durationMicros() / 1000);
+                        summary.put("rounds", root.attributes().get("rounds"));
+                        summary.put("termination", root.attributes().get("termination"));
+                        summary.put("status", root.status());
+                        return summary;
+                    })
+                    .toList();
+            return ResponseEntity.ok(traces);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 토론 트레이스의 전체 스팬과 임계 경로 (traceId는 로그의 debateId)
+    @GetMapping("/traces/{traceId}")
+    public ResponseEntity<?> getTrace(@PathVariable String traceId) {
+        try {
+            Long userId = securityUtil.getCurrentUserId();
+            List<SpanData> spans = spanStore.getTrace(traceId).orElse(null);
+            boolean owned = spans != null && spans.stream()
+                    .anyMatch(span -> span.parentSpanId() == null && userId.equals(span.attributes().get("userId")));
+            if (!owned) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(Map.of(
+                    "spans", spans,
+                    "criticalPath", CriticalPathAnalyzer.analyze(spans)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/gpt/summarize")
     public ResponseEntity<ChatResponseDTO> summarizeConversation(@RequestParam Long chatRoomId) {
         try {
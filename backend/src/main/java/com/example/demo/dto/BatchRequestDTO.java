@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchRequestDTO {
+    private List<String> questions; // 질문마다 새 대화방에서 토론
+    private List<String> promptKeys;
+    private Integer conversationRounds; // 대화 횟수
+}
@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BatchStatusDTO {
+    private String batchId;
+    private String status; // RUNNING, COMPLETED
+    private int total;
+    private int completed; // 요약까지 끝난 질문 수
+    private int failed;
+    private List<String> promptKeys;
+    private Integer conversationRounds;
+    private String createdAt;
+    private String updatedAt;
+}
@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.ChatEntity;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class DebateEventDTO {
+    private String type; // message, summary
+    private Long chatRoomId;
+    private Integer round;
+    private String role;
+    private String message;
+    private Long tokensUsed;
+    private String timestamp;
+
+    public static DebateEventDTO of(String type, Long chatRoomId, int round, ChatEntity chat) {
+        return DebateEventDTO.builder()
+                .type(type)
+                .chatRoomId(chatRoomId)
+                .round(round)
+                .role(chat.getSender())
+                .message(chat.getMessage())
+                .tokensUsed(chat.getTokensUsed())
+                .timestamp(chat.getTimestamp())
+                .build();
+    }
+}
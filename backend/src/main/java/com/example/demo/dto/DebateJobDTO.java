@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class DebateJobDTO {
+    private String jobId;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    private Long chatRoomId;
+    private Integer currentRound;
+    private Map<String, Integer> completedRoles; // 역할별 완료된 응답 수
+    private ChatResponseDTO result;
+    private String error;
+    private String createdAt;
+    private String updatedAt;
+}
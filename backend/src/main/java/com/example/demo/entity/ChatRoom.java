@@ -35,6 +35,12 @@ public class ChatRoom {
     @Column(columnDefinition = "TEXT")
     private String note; // 노트 내용 (사용자가 수정 가능)
 
+    // 노트(요약)에 마지막으로 반영된 메시지 ID. 이후 메시지만 점진적으로 요약
+    private Long summarizedUntilChatId;
+
+    // 마지막 토론 상태 (RUNNING, COMPLETED, CANCELLED, FAILED). 연결 종료/취소 요청으로 중단되면 CANCELLED
+    private String debateStatus;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
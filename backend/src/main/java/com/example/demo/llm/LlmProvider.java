@@ -0,0 +1,16 @@
+package com.example.demo.llm;
+
+/**
+ * GptService 뒤에서 실제 모델 호출을 담당하는 프로바이더.
+ * chat.llm.provider 설정으로 구현체를 선택합니다. (openai: 실제 API, stub: 로컬 부하 테스트용)
+ *
+ * 구현체는 여러 스레드에서 동시에 호출되므로 스레드 안전해야 합니다.
+ * 호출 실패 시 예외를 던지며, 캐시/동시성 제한/오류 응답 변환은 GptService가 처리합니다.
+ * 요청 한도 초과(HTTP 429)는 LlmRateLimitException으로 알려야 LlmRateLimiter가 한도를 낮추고 재시도합니다.
+ */
+public interface LlmProvider {
+
+    LlmResponse call(LlmRequest request) throws Exception;
+
+    String name();
+}
@@ -0,0 +1,25 @@
+package com.example.demo.llm;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 프로바이더가 요청/토큰 한도 초과(HTTP 429)로 호출을 거절했거나, 속도 제한 대기열에서 허가를 받지 못한 경우.
+ * retryAfter는 프로바이더 응답에서 재시도 시점을 알 수 있을 때만 설정됩니다.
+ */
+public class LlmRateLimitException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public LlmRateLimitException(String message, Duration retryAfter) {
+        this(message, retryAfter, null);
+    }
+
+    public LlmRateLimitException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.llm;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 프로바이더에 전달하는 LLM 호출 요청.
+ *
+ * @param role           호출한 역할 키 (moderator, summarizer, critic 등)
+ * @param model          모델 이름
+ * @param temperature    샘플링 온도
+ * @param responseSchema 응답 JSON 스키마 (없으면 null, 일반 텍스트 응답)
+ * @param messages       role/content 쌍의 대화 메시지
+ */
+public record LlmRequest(String role,
+                         String model,
+                         double temperature,
+                         String responseSchema,
+                         List<Map<String, String>> messages) {
+}
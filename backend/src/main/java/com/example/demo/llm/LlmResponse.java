@@ -0,0 +1,11 @@
+package com.example.demo.llm;
+
+/**
+ * 프로바이더 응답 본문과 토큰 사용량.
+ * 사용량을 알 수 없는 항목은 null 입니다.
+ */
+public record LlmResponse(String text,
+                          Long promptTokens,
+                          Long totalTokens,
+                          long cachedPromptTokens) {
+}
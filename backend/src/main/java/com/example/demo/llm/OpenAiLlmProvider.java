@@ -0,0 +1,135 @@
+package com.example.demo.llm;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.ai.openai.api.ResponseFormat;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Spring AI OpenAiChatModel을 사용하는 기본 프로바이더
+ */
+@Component
+@ConditionalOnProperty(name = "chat.llm.provider", havingValue = "openai", matchIfMissing = true)
+public class OpenAiLlmProvider implements LlmProvider {
+    // 429 응답 본문의 재시도 안내 (예: "Please try again in 1.2s", "Please try again in 350ms")
+    private static final Pattern TRY_AGAIN_PATTERN = Pattern.compile("try again in (\\d+(?:\\.\\d+)?)(ms|s)");
+
+    private final OpenAiChatModel openAiChatModel;
+
+    public OpenAiLlmProvider(OpenAiChatModel openAiChatModel) {
+        this.openAiChatModel = openAiChatModel;
+    }
+
+    @Override
+    public LlmResponse call(LlmRequest request) {
+        // 1. 공통 옵션 빌더 생성
+        OpenAiChatOptions.Builder optionsBuilder = OpenAiChatOptions.builder()
+                .model(request.model())
+                .temperature(request.temperature());
+        // 2. 스키마가 있으면 (moderator) JSON 모드 활성화
+        if (request.responseSchema() != null) {
+            optionsBuilder.responseFormat(new ResponseFormat(ResponseFormat.Type.JSON_SCHEMA, request.responseSchema()));
+        }
+
+        // 3. ChatService의 List<Map>을 Spring AI의 List<Message>로 변환
+        List<Message> springAiMessages = toSpringAiMessages(request.messages());
+
+        // .call()이 Prompt에 포함된 options를 사용합니다.
+        ChatResponse response;
+        try {
+            response = openAiChatModel.call(new Prompt(springAiMessages, optionsBuilder.build()));
+        } catch (RuntimeException e) {
+            throw rateLimitException(e).orElseThrow(() -> e);
+        }
+        if (response == null || response.getResult() == null) {
+            return null;
+        }
+
+        String text = response.getResult().getOutput().getText();
+        Long promptTokens = null;
+        Long totalTokens = null;
+        long cachedTokens = 0L;
+        if (response.getMetadata() != null && response.getMetadata().getUsage() != null) {
+            Usage usage = response.getMetadata().getUsage();
+            promptTokens = usage.getPromptTokens() != null ? usage.getPromptTokens().longValue() : null;
+            totalTokens = usage.getTotalTokens() != null ? usage.getTotalTokens().longValue() : null;
+            cachedTokens = cachedTokens(usage);
+        }
+        return new LlmResponse(text, promptTokens, totalTokens, cachedTokens);
+    }
+
+    @Override
+    public String name() {
+        return "openai";
+    }
+
+    // 벤치마크(src/jmh)에서 직접 호출하므로 package-private
+    static List<Message> toSpringAiMessages(List<Map<String, String>> messages) {
+        return messages.stream()
+                .map(msgMap -> {
+                    String role = msgMap.get("role");
+                    String content = msgMap.get("content");
+                    switch (role) {
+                        case "system":
+                            return new SystemMessage(content);
+                        case "user":
+                            return new UserMessage(content);
+                        case "assistant":
+                            return new AssistantMessage(content);
+                        default:
+                            return new UserMessage(content); // 기본값
+                    }
+                })
+                .collect(Collectors.toList());
+    }
+
+    // Spring AI 오류 처리기는 4xx 응답을 "상태 코드 - 본문" 메시지의 예외로 던지므로 메시지로 429를 구분
+    private Optional<LlmRateLimitException> rateLimitException(RuntimeException e) {
+        Duration retryAfter = null;
+        if (e instanceof HttpClientErrorException.TooManyRequests tooManyRequests) {
+            String header = tooManyRequests.getResponseHeaders() != null
+                    ? tooManyRequests.getResponseHeaders().getFirst("Retry-After") : null;
+            if (header != null && header.matches("\\d+")) {
+                retryAfter = Duration.ofSeconds(Long.parseLong(header));
+            }
+        } else if (e.getMessage() == null || !e.getMessage().startsWith("429")) {
+            return Optional.empty();
+        }
+        if (retryAfter == null && e.getMessage() != null) {
+            Matcher matcher = TRY_AGAIN_PATTERN.matcher(e.getMessage());
+            if (matcher.find()) {
+                double value = Double.parseDouble(matcher.group(1));
+                retryAfter = Duration.ofMillis((long) Math.ceil("ms".equals(matcher.group(2)) ? value : value * 1000));
+            }
+        }
+        return Optional.of(new LlmRateLimitException("OpenAI 요청 한도 초과", retryAfter, e));
+    }
+
+    // OpenAI 응답의 prompt_tokens_details.cached_tokens (프리픽스 캐시 적중분)
+    private long cachedTokens(Usage usage) {
+        if (usage.getNativeUsage() instanceof OpenAiApi.Usage nativeUsage
+                && nativeUsage.promptTokensDetails() != null
+                && nativeUsage.promptTokensDetails().cachedTokens() != null) {
+            return nativeUsage.promptTokensDetails().cachedTokens();
+        }
+        return 0L;
+    }
+}
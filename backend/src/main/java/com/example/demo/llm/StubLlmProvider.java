@@ -0,0 +1,167 @@
+package com.example.demo.llm;
+
+import com.example.demo.config.StubLlmProperties;
+import com.example.demo.service.TokenEstimator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 네트워크 호출 없이 응답을 만들어 내는 로컬 프로바이더 (chat.llm.provider=stub).
+ * API 키와 비용 없이 토론 오케스트레이션, DB 저장, 실행기 동작을 실제와 비슷한 동시성으로 부하 테스트하기 위해 사용합니다.
+ * - 지연: 역할별 분포(fixed/uniform/lognormal)에 따라 호출 스레드를 대기
+ * - 토큰: 프롬프트는 TokenEstimator 추정치, 응답은 설정한 범위에서 선택
+ * - 오류: error-rate 확률로 예외 발생
+ * - 사회자: GptService의 MODERATOR_SCHEMA를 따르는 JSON, end-after-rounds 라운드에 종료
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chat.llm.provider", havingValue = "stub")
+public class StubLlmProvider implements LlmProvider {
+    // ChatService가 사회자에게 전달하는 마지막 메시지 형식
+    private static final Pattern ROUND_PATTERN = Pattern.compile("현재 라운드: (\\d+) / 최대 라운드: (\\d+)");
+    // OpenAI 프리픽스 캐시와 같이 1024토큰 이상부터 128토큰 단위로 캐시 적중 처리
+    private static final int CACHE_MIN_TOKENS = 1024;
+    private static final int CACHE_CHUNK_TOKENS = 128;
+    private static final String FILLER = "stub response text for load testing. ";
+
+    private final StubLlmProperties properties;
+    private final TokenEstimator tokenEstimator;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public StubLlmProvider(StubLlmProperties properties, TokenEstimator tokenEstimator, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.tokenEstimator = tokenEstimator;
+        this.objectMapper = objectMapper;
+        log.info("스텁 LLM 프로바이더를 사용합니다. (seed={}, errorRate={})", properties.getSeed(), properties.getErrorRate());
+    }
+
+    @Override
+    public LlmResponse call(LlmRequest request) throws Exception {
+        SplittableRandom random = new SplittableRandom(properties.getSeed() * 31 + sequence.getAndIncrement());
+
+        Thread.sleep(sampleLatencyMs(properties.latencyFor(request.role()), random));
+
+        if (random.nextDouble() < properties.getErrorRate()) {
+            throw new IllegalStateException("stub: injected error (" + request.role() + ")");
+        }
+        // 비활성 시 난수를 소비하지 않아 기존 시드의 재현 결과가 바뀌지 않음
+        if (properties.getRateLimitRate() > 0 && random.nextDouble() < properties.getRateLimitRate()) {
+            throw new LlmRateLimitException("stub: injected rate limit (" + request.role() + ")",
+                    Duration.ofMillis(properties.getRetryAfterMs()));
+        }
+
+        String text;
+        if (request.responseSchema() != null) {
+            text = moderatorJson(request, random);
+        } else {
+            int completionTokens = random.nextInt(properties.getCompletionTokensMin(),
+                    Math.max(properties.getCompletionTokensMin(), properties.getCompletionTokensMax()) + 1);
+            text = expertText(request.role(), completionTokens);
+        }
+
+        long promptTokens = tokenEstimator.estimateMessages(request.messages());
+        long totalTokens = promptTokens + tokenEstimator.estimate(text);
+        return new LlmResponse(text, promptTokens, totalTokens, cachedPromptTokens(request));
+    }
+
+    @Override
+    public String name() {
+        return "stub";
+    }
+
+    private long sampleLatencyMs(StubLlmProperties.Latency latency, SplittableRandom random) {
+        double value;
+        switch (latency.getDistribution()) {
+            case "fixed":
+                value = latency.getMedianMs();
+                break;
+            case "uniform":
+                value = latency.getMinMs() + random.nextDouble() * Math.max(0, latency.getMaxMs() - latency.getMinMs());
+                break;
+            default:
+                // 로그정규분포: 중앙값 * exp(sigma * N(0,1))
+                value = latency.getMedianMs() * Math.exp(latency.getSigma() * nextGaussian(random));
+        }
+        return Math.max(latency.getMinMs(), Math.min(latency.getMaxMs(), Math.round(value)));
+    }
+
+    // Box-Muller 변환 (SplittableRandom은 Java 17에서 nextGaussian을 제공하지 않음)
+    private double nextGaussian(SplittableRandom random) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+
+    private String moderatorJson(LlmRequest request, SplittableRandom random) throws Exception {
+        if (random.nextDouble() < properties.getModerator().getMalformedRate()) {
+            return "{\"request\": [{\"roleKey\": \"critic\", \"messages\": ";
+        }
+
+        int round = currentRound(request);
+        boolean shouldEnd = round >= properties.getModerator().getEndAfterRounds();
+
+        List<Map<String, String>> requests = new ArrayList<>();
+        if (!shouldEnd) {
+            for (String roleKey : properties.getModerator().getRoleKeys()) {
+                Map<String, String> item = new LinkedHashMap<>();
+                item.put("roleKey", roleKey);
+                item.put("messages", round + "라운드: " + roleKey + " 관점에서 앞선 발언을 검토하고 의견을 제시해 주세요.");
+                requests.add(item);
+            }
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("request", requests);
+        body.put("shouldEnd", shouldEnd);
+        return objectMapper.writeValueAsString(body);
+    }
+
+    // 사회자 요청의 라운드 정보 메시지에서 현재 라운드를 읽음 (없으면 1라운드)
+    private int currentRound(LlmRequest request) {
+        for (int i = request.messages().size() - 1; i >= 0; i--) {
+            String content = request.messages().get(i).get("content");
+            if (content == null) {
+                continue;
+            }
+            Matcher matcher = ROUND_PATTERN.matcher(content);
+            if (matcher.find()) {
+                return Integer.parseInt(matcher.group(1));
+            }
+        }
+        return 1;
+    }
+
+    private String expertText(String role, int completionTokens) {
+        StringBuilder text = new StringBuilder("[stub:" + role + "] ");
+        // ASCII 4자당 1토큰으로 추정되므로 목표 토큰 수만큼 채움
+        while (tokenEstimator.estimate(text.toString()) < completionTokens) {
+            text.append(FILLER);
+        }
+        return text.toString();
+    }
+
+    // 시스템 프롬프트(고정 프리픽스) 중 캐시 단위로 맞아떨어지는 토큰 수
+    private long cachedPromptTokens(LlmRequest request) {
+        if (request.messages().isEmpty() || !"system".equals(request.messages().get(0).get("role"))) {
+            return 0L;
+        }
+        int prefixTokens = tokenEstimator.estimateMessage(request.messages().get(0));
+        if (prefixTokens < CACHE_MIN_TOKENS) {
+            return 0L;
+        }
+        return (long) (prefixTokens / CACHE_CHUNK_TOKENS) * CACHE_CHUNK_TOKENS;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.demo.service;
 import com.example.demo.config.PromptLoader;
 import com.example.demo.dto.ChatRequestDTO;
 import com.example.demo.dto.ChatResponseDTO;
+import com.example.demo.dto.DebateEventDTO;
 import com.example.demo.dto.ModeratorResponseDTO;
 import com.example.demo.entity.ChatEntity;
 import com.example.demo.entity.ChatRoom;
@@ -10,78 +11,168 @@ import com.example.demo.entity.Member;
 import com.example.demo.repository.ChatRepository;
 import com.example.demo.repository.ChatRoomRepository;
 import com.example.demo.repository.MemberRepository;
+import com.example.demo.service.DebatePersistenceService.DebateSession;
+import com.example.demo.tracing.DebateTracer;
+import com.example.demo.tracing.Span;
+import com.example.demo.util.PayloadLogSampler;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+@Slf4j
 @Service
 public class ChatService {
+    // 로그 상관관계 MDC 키 (logback-spring.xml 패턴에 포함)
+    static final String MDC_DEBATE_ID = "debateId";
+    static final String MDC_CHAT_ROOM_ID = "chatRoomId";
+
     private final ChatRepository chatRepository;
     private final ChatRoomRepository chatRoomRepository;
     private final MemberRepository memberRepository;
     private final GptService gptService;
     private final PromptLoader promptLoader;
-    private final Executor gptExecutor;
+    private final ExpertInvoker expertInvoker;
     private final ObjectMapper objectMapper;
     private final GoogleCustomSearchService googleCustomSearchService;
+    private final DebatePersistenceService debatePersistenceService;
+    private final ContextWindowBuilder contextWindowBuilder;
+    private final DebateMetrics debateMetrics;
+    private final PayloadLogSampler payloadLogSampler;
+    private final DebateTracer tracer;
+    private final RoundCompletionPolicy roundCompletionPolicy;
+    private final ModeratorStrategy moderatorStrategy;
+    private final TokenEstimator tokenEstimator;
+    private final FairLlmScheduler llmScheduler;
+
+    // incremental: 체크포인트 이후 메시지만 요약에 반영, full: 매번 전체 대화를 요약
+    @Value("${chat.summarizer.mode:incremental}")
+    private String summarizerMode;
+
+    // researcher 웹 검색 대기 시간. 넘으면 검색 결과 없이 전문가 호출을 진행
+    @Value("${chat.researcher.search-timeout-ms:6000}")
+    private long researcherSearchTimeoutMs;
+
+    // 사회자 호출과 동시에 전문가를 미리 실행하는 추측 실행 (기본 꺼짐)
+    @Value("${chat.speculation.enabled:false}")
+    private boolean speculationEnabled;
+
+    // 토론당 버려진 추측 실행 토큰 한도. 넘으면 그 토론에서는 추측 실행하지 않음
+    @Value("${chat.speculation.max-wasted-tokens:8000}")
+    private long speculationMaxWastedTokens;
+
+    // 추측 실행 질문(사용자 질문)과 사회자 질문의 단어 유사도(Jaccard)가 이 값 이상이어야 결과를 사용
+    // 0이면 1라운드에서만 역할이 같으면 사용 (2라운드부터 사회자의 후속 질문을 버리지 않도록)
+    @Value("${chat.speculation.min-similarity:0.5}")
+    private double speculationMinSimilarity;
+
+    // 사회자가 정한 검색어가 필요한 역할은 추측 실행하지 않음
+    @Value("${chat.speculation.excluded-roles:researcher}")
+    private List<String> speculationExcludedRoles;
 
     public ChatService(ChatRepository chatRepository, ChatRoomRepository chatRoomRepository,
                       MemberRepository memberRepository, GptService gptService, PromptLoader promptLoader, 
-                      Executor gptExecutor, ObjectMapper objectMapper, GoogleCustomSearchService googleCustomSearchService) {
+                      ExpertInvoker expertInvoker, ObjectMapper objectMapper, GoogleCustomSearchService googleCustomSearchService,
+                      DebatePersistenceService debatePersistenceService, ContextWindowBuilder contextWindowBuilder,
+                      DebateMetrics debateMetrics, PayloadLogSampler payloadLogSampler, DebateTracer tracer,
+                      RoundCompletionPolicy roundCompletionPolicy, ModeratorStrategy moderatorStrategy,
+                      TokenEstimator tokenEstimator, FairLlmScheduler llmScheduler) {
         this.chatRepository = chatRepository;
         this.chatRoomRepository = chatRoomRepository;
         this.memberRepository = memberRepository;
         this.gptService = gptService;
         this.promptLoader = promptLoader;
-        this.gptExecutor = gptExecutor;
+        this.expertInvoker = expertInvoker;
         this.objectMapper = objectMapper;
         this.googleCustomSearchService = googleCustomSearchService;
+        this.debatePersistenceService = debatePersistenceService;
+        this.contextWindowBuilder = contextWindowBuilder;
+        this.debateMetrics = debateMetrics;
+        this.payloadLogSampler = payloadLogSampler;
+        this.tracer = tracer;
+        this.roundCompletionPolicy = roundCompletionPolicy;
+        this.moderatorStrategy = moderatorStrategy;
+        this.tokenEstimator = tokenEstimator;
+        this.llmScheduler = llmScheduler;
     }
 
-    @Transactional
     public ChatResponseDTO askQuestion(ChatRequestDTO requestDTO) {
+        return askQuestion(requestDTO, DebateListener.NONE);
+    }
+
+    public ChatResponseDTO askQuestion(ChatRequestDTO requestDTO, DebateListener listener) {
+        return askQuestion(requestDTO, listener, new DebateCancellation());
+    }
+
+    // listener에는 사회자/전문가/요약 메시지가 생성되는 즉시 전달됨
+    // LLM 호출 동안에는 트랜잭션을 열어두지 않고, 메시지는 라운드마다 짧은 트랜잭션으로 저장
+    // cancellation이 취소되면 진행 중인 LLM/검색 호출을 중단하고 DebateCancelledException을 던짐 (요약 생략)
+    public ChatResponseDTO askQuestion(ChatRequestDTO requestDTO, DebateListener listener, DebateCancellation cancellation) {
+        // 토론 단위 상관관계 ID: 이 스레드와 gptExecutor 작업의 로그에 포함됨 (MdcTaskDecorator)
+        // 같은 값을 트레이스 ID로 사용하므로 로그에서 /api/traces/{debateId} 로 바로 찾아갈 수 있음
+        String debateId = UUID.randomUUID().toString().substring(0, 8);
+        MDC.put(MDC_DEBATE_ID, debateId);
+        // 공정 스케줄러가 LLM 작업을 회원별 대기열로 나누는 키
+        if (requestDTO.getUserId() != null) {
+            MDC.put(FairLlmScheduler.MDC_MEMBER_ID, String.valueOf(requestDTO.getUserId()));
+        }
+        Span debateSpan = tracer.startRootSpan("debate", debateId)
+                .setAttribute("userId", requestDTO.getUserId());
+        try (DebateTracer.Scope scope = debateSpan.makeCurrent()) {
+            return runDebate(requestDTO, listener, cancellation);
+        } catch (DebateCancelledException e) {
+            debateSpan.setStatus("cancelled");
+            throw e;
+        } catch (RuntimeException e) {
+            debateSpan.recordError(e);
+            throw e;
+        } finally {
+            debateSpan.end();
+            MDC.remove(MDC_DEBATE_ID);
+            MDC.remove(MDC_CHAT_ROOM_ID);
+            MDC.remove(FairLlmScheduler.MDC_MEMBER_ID);
+        }
+    }
+
+    private ChatResponseDTO runDebate(ChatRequestDTO requestDTO, DebateListener listener, DebateCancellation cancellation) {
         // 사용자 검증
         if (requestDTO.getUserId() == null) {
             return new ChatResponseDTO("사용자 ID가 필요합니다.");
         }
-        
-        Member member = memberRepository.findById(requestDTO.getUserId())
-                .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
 
-        // 대화방 가져오기 또는 생성
-        final ChatRoom chatRoom;
-        if (requestDTO.getChatRoomId() != null) {
-            chatRoom = chatRoomRepository.findByIdAndMember(requestDTO.getChatRoomId(), member)
-                    .orElseThrow(() -> new RuntimeException("대화방을 찾을 수 없거나 접근 권한이 없습니다."));
-        } else {
-            // 새 대화방 생성
-            String title = requestDTO.getQuestion().length() > 50 
-                    ? requestDTO.getQuestion().substring(0, 50) + "..." 
-                    : requestDTO.getQuestion();
-            ChatRoom newChatRoom = ChatRoom.builder()
-                    .member(member)
-                    .title(title)
-                    .build();
-            chatRoom = chatRoomRepository.save(newChatRoom);
-        }
-
-        // 사용자 입력 저장
-        ChatEntity userMessage = ChatEntity.builder()
-                .chatRoom(chatRoom)
-                .message(requestDTO.getQuestion())
-                .sender("user")
-                .timestamp(Instant.now().toString())
-                .build();
-        chatRepository.save(userMessage);
+        // 대화방 가져오기 또는 생성, 사용자 입력 저장 및 대화 히스토리 로드
+        DebateSession session = tracer.inSpan("db.startDebate", () -> debatePersistenceService.startDebate(requestDTO));
+        final Long chatRoomId = session.getChatRoomId();
+        final String existingNote = session.getNote();
+        List<ChatEntity> allHistory = session.getHistory();
+        MDC.put(MDC_CHAT_ROOM_ID, String.valueOf(chatRoomId));
+        Span debateSpan = DebateTracer.currentSpan();
+        debateSpan.setAttribute("chatRoomId", chatRoomId);
 
         // 프롬프트 키 검증 및 기본값 설정
         List<String> promptKeys = requestDTO.getPromptKeys();
@@ -90,9 +181,6 @@ public class ChatService {
             promptKeys = List.of("creator", "critic", "analyst");
         }
         final List<String> finalPromptKeys = promptKeys;
-
-        // 해당 대화방의 대화 히스토리 로드
-        List<ChatEntity> allHistory = chatRepository.findByChatRoomOrderByTimestampAsc(chatRoom);
         
         // 최대 대화 횟수 설정 (사용자가 지정한 횟수만큼만 반복)
         int maxRounds = 10; // 기본값
@@ -103,186 +191,426 @@ public class ChatService {
         // 자율적인 대화 진행 (모더레이터가 종료할 때까지 또는 최대 횟수까지)
         int round = 0;
         boolean shouldEnd = false;
+        // 라운드 완료 조건(RoundCompletionPolicy) 충족 후 도착한 전문가 응답. 작업 스레드가 넣고 토론 스레드가 꺼내 저장
+        Queue<ChatEntity> lateAnswers = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<Void>> outstanding = new ArrayList<>();
+        // 추측 실행 대상 (지난 라운드에 요청된 역할, 1라운드는 선택된 모든 역할)과 버려진 추측 실행의 토큰 수
+        List<String> likelyRoles = finalPromptKeys;
+        AtomicLong wastedSpeculationTokens = new AtomicLong();
         
-        while (round < maxRounds && !shouldEnd) {
-            round++;
-            System.out.println("\n========== 대화 " + round + "회차 (최대 " + maxRounds + "회차) ==========");
-            
-            // 사회자에게 누구에게 물어볼지 결정 요청
-            List<Map<String, String>> moderatorMessages = buildMessages("moderator", requestDTO.getQuestion(), allHistory, chatRoom.getNote(), round, maxRounds);
-            ChatEntity moderatorResponse = gptService.requestGpt(moderatorMessages, "moderator");
+        try {
+            while (round < maxRounds && !shouldEnd) {
+                cancellation.throwIfCancelled();
+                round++;
+                Span roundSpan = tracer.startSpan("round").setAttribute("round", round);
+                Map<String, ExpertCall> speculative = new HashMap<>();
+                try (DebateTracer.Scope roundScope = roundSpan.makeCurrent()) {
+                    log.debug("대화 {}회차 시작 (최대 {}회차)", round, maxRounds);
+                    // 지난 라운드에 늦게 도착한 응답을 사회자가 볼 수 있도록 먼저 합침
+                    mergeLateAnswers(chatRoomId, lateAnswers, allHistory);
+                    outstanding.removeIf(CompletableFuture::isDone);
             
-            // 사회자 응답 출력 및 저장
-            if (moderatorResponse != null) {
-                moderatorResponse.setChatRoom(chatRoom);
-                chatRepository.save(moderatorResponse);
-                allHistory.add(moderatorResponse);
-                System.out.println("[사회자 원본 응답]");
-                System.out.println(moderatorResponse.getMessage());
-                System.out.println("---");
-                
-                // 사회자 응답 파싱 및 종료 여부 확인
-                ModeratorResponseDTO decision = parseModerator(moderatorResponse.getMessage());
-                if (decision != null) {
-                    // 종료 여부 확인
-                    if (Boolean.TRUE.equals(decision.getShouldEnd())) {
-                        System.out.println("[사회자 결정] 대화를 종료합니다.");
-                        shouldEnd = true;
-                        // 종료 시에도 통계 반영
-                        if (moderatorResponse.getTokensUsed() != null && moderatorResponse.getTokensUsed() > 0) {
-                            chatRoom.addTokensUsed(moderatorResponse.getTokensUsed());
+                    // 예측 가능한 라운드는 사회자 전략이 로컬에서 결정하고, 그 외에는 LLM 사회자에게 결정 요청
+                    Optional<ModeratorResponseDTO> localDecision = moderatorStrategy.decide(
+                            new ModeratorStrategy.Round(round, maxRounds, requestDTO.getQuestion(), finalPromptKeys));
+                    ChatEntity moderatorResponse;
+                    if (localDecision.isPresent()) {
+                        moderatorResponse = localModeratorMessage(localDecision.get());
+                        debateMetrics.recordModeratorDecision(moderatorStrategy.name());
+                        roundSpan.setAttribute("moderator", moderatorStrategy.name());
+                    } else {
+                        List<Map<String, String>> moderatorMessages = buildMessages("moderator", requestDTO.getQuestion(), allHistory, existingNote, round, maxRounds);
+                        // 사회자 응답을 기다리는 동안 요청될 가능성이 높은 전문가를 미리 실행 (라운드 지연이 합이 아닌 최댓값에 가까워짐)
+                        speculative = startSpeculation(likelyRoles, requestDTO.getQuestion(), allHistory, round, cancellation,
+                                wastedSpeculationTokens.get());
+                        // 사회자 호출은 라운드 전체를 막고 있으므로 스케줄러에서 전문가 작업보다 먼저 슬롯을 받음
+                        try (DebateCancellation.Registration interrupt = cancellation.interruptOnCancel();
+                             FairLlmScheduler.Slot slot = llmScheduler.acquire("moderator")) {
+                            moderatorResponse = gptService.requestGpt(moderatorMessages, "moderator");
                         }
-                        chatRoom.incrementRoleParticipation("moderator");
-                        break; // 루프 종료
+                        // 취소로 중단된 호출의 오류 응답은 저장하지 않음
+                        cancellation.throwIfCancelled();
+                        debateMetrics.recordModeratorDecision("llm");
+                        roundSpan.setAttribute("moderator", "llm");
                     }
+            
+                    // 사회자 응답 출력 및 저장 (통계 반영 포함)
+                    if (moderatorResponse != null) {
+                        saveMessages(chatRoomId, List.of(moderatorResponse));
+                        allHistory.add(moderatorResponse);
+                        listener.onEvent(DebateEventDTO.of("message", chatRoomId, round, moderatorResponse));
+                        if (log.isDebugEnabled() && payloadLogSampler.sample()) {
+                            log.debug("사회자 원본 응답: {}", payloadLogSampler.truncate(moderatorResponse.getMessage()));
+                        }
+                
+                        // 사회자 응답 파싱 및 종료 여부 확인
+                        ModeratorResponseDTO decision = localDecision.orElseGet(() -> parseModerator(moderatorResponse.getMessage()));
+                        List<ModeratorResponseDTO.RequestItem> requests;
+                        if (decision != null) {
+                            // 종료 여부 확인
+                            if (Boolean.TRUE.equals(decision.getShouldEnd())) {
+                                log.debug("사회자 결정: {}회차에서 대화를 종료합니다.", round);
+                                shouldEnd = true;
+                                break; // 루프 종료
+                            }
                     
-                    // 요청이 있으면 처리
-                    if (decision.getRequest() != null && !decision.getRequest().isEmpty()) {
-                        System.out.println("[파싱 성공] 사회자 요청 수: " + decision.getRequest().size());
-                        
-                        // 사회자 요청 처리
-                        List<CompletableFuture<ChatEntity>> futures = new ArrayList<>();
-                        decision.getRequest().stream()
-                                .filter(item -> {
-                                    boolean allowed = finalPromptKeys != null && finalPromptKeys.contains(item.getRoleKey());
-                                    if (!allowed) {
-                                        System.out.println("[필터링] 허용되지 않은 roleKey 제거: " + item.getRoleKey());
-                                    }
-                                    return allowed;
-                                })
-                                .forEach(item -> {
-                            String roleKey = item.getRoleKey();
-                            String questionToExperts = item.getMessages() != null ? item.getMessages() : requestDTO.getQuestion();
-                            List<Map<String, String>> messages = buildMessages(roleKey, questionToExperts, allHistory, null);
-                            CompletableFuture<ChatEntity> future = CompletableFuture
-                                    .supplyAsync(() -> gptService.requestGpt(messages, roleKey), gptExecutor)
-                                    .orTimeout(45, TimeUnit.SECONDS)
-                                    .exceptionally(ex -> null);
-                            futures.add(future);
-                        });
-                        
+                            // 요청이 있으면 처리
+                            if (decision.getRequest() != null && !decision.getRequest().isEmpty()) {
+                                log.debug("사회자 요청 수: {}", decision.getRequest().size());
+                                requests = decision.getRequest().stream()
+                                        .filter(item -> {
+                                            boolean allowed = finalPromptKeys != null && finalPromptKeys.contains(item.getRoleKey());
+                                            if (!allowed) {
+                                                log.debug("허용되지 않은 roleKey 제거: {}", item.getRoleKey());
+                                            }
+                                            return allowed;
+                                        })
+                                        .toList();
+                            } else {
+                                log.debug("사회자 요청 없음, 다음 라운드로 진행합니다.");
+                                requests = List.of();
+                            }
+                        } else {
+                            log.warn("사회자 응답 파싱 실패, 모든 역할에게 원본 질문을 전달합니다. (라운드 {})", round);
+                            debateMetrics.recordModeratorParseFailure();
+                            roundSpan.setAttribute("moderatorParseFailure", true);
+                            // 파싱 실패 시 기본 동작: 모든 역할에게 원본 질문
+                            requests = finalPromptKeys.stream()
+                                    .map(roleKey -> {
+                                        ModeratorResponseDTO.RequestItem item = new ModeratorResponseDTO.RequestItem();
+                                        item.setRoleKey(roleKey);
+                                        item.setMessages(requestDTO.getQuestion());
+                                        return item;
+                                    })
+                                    .toList();
+                        }
+
                         // 전문가 응답 대기 및 저장
-                        List<ChatEntity> roundAnswers = futures.stream()
-                                .map(CompletableFuture::join)
-                                .filter(answer -> answer != null)
-                                .peek(answer -> {
-                                    answer.setChatRoom(chatRoom);
-                                    // 통계 업데이트: 역할별 참여 횟수 및 토큰 사용량
-                                    if (answer.getSender() != null && !answer.getSender().equals("user")) {
-                                        chatRoom.incrementRoleParticipation(answer.getSender());
-                                    }
-                                    if (answer.getTokensUsed() != null && answer.getTokensUsed() > 0) {
-                                        chatRoom.addTokensUsed(answer.getTokensUsed());
-                                    }
-                                })
-                                .toList();
-
-                        if (!roundAnswers.isEmpty()) {
-                            chatRepository.saveAll(roundAnswers);
-                            allHistory.addAll(roundAnswers);
+                        likelyRoles = requests.stream().map(ModeratorResponseDTO.RequestItem::getRoleKey).distinct().toList();
+                        if (!requests.isEmpty()) {
+                            RoundCompletionPolicy.RoundResult result = runExperts(requests, requestDTO.getQuestion(), allHistory, listener,
+                                    chatRoomId, round, cancellation, speculative, wastedSpeculationTokens);
+                            List<ChatEntity> roundAnswers = result.answers();
+                            if (!roundAnswers.isEmpty()) {
+                                saveMessages(chatRoomId, roundAnswers);
+                                allHistory.addAll(roundAnswers);
+                            }
+                            cancellation.throwIfCancelled();
+                            if (!result.pending().isEmpty()) {
+                                log.debug("전문가 {}명의 응답을 기다리지 않고 진행합니다. (라운드 {})", result.pending().size(), round);
+                                roundSpan.setAttribute("lateExperts", result.pending().size());
+                                for (CompletableFuture<ChatEntity> pending : result.pending()) {
+                                    outstanding.add(pending.thenAccept(answer -> {
+                                        if (answer != null) {
+                                            lateAnswers.add(answer);
+                                        }
+                                    }));
+                                }
+                            }
                         }
                     } else {
-                        System.out.println("[사회자 요청 없음] 다음 라운드로 진행합니다.");
-                    }
-                } else {
-                    System.out.println("[파싱 실패] 기본 동작으로 진행합니다.");
-                    // 파싱 실패 시 기본 동작
-                    List<CompletableFuture<ChatEntity>> futures = new ArrayList<>();
-                    for (String roleKey : finalPromptKeys) {
-                        List<Map<String, String>> messages = buildMessages(roleKey, requestDTO.getQuestion(), allHistory, null);
-                        CompletableFuture<ChatEntity> future = CompletableFuture
-                                .supplyAsync(() -> gptService.requestGpt(messages, roleKey), gptExecutor)
-                                .orTimeout(45, TimeUnit.SECONDS)
-                                .exceptionally(ex -> null);
-                        futures.add(future);
-                    }
-                    
-                    List<ChatEntity> roundAnswers = futures.stream()
-                            .map(CompletableFuture::join)
-                            .filter(answer -> answer != null)
-                            .peek(answer -> {
-                                answer.setChatRoom(chatRoom);
-                                if (answer.getSender() != null && !answer.getSender().equals("user")) {
-                                    chatRoom.incrementRoleParticipation(answer.getSender());
-                                }
-                                if (answer.getTokensUsed() != null && answer.getTokensUsed() > 0) {
-                                    chatRoom.addTokensUsed(answer.getTokensUsed());
-                                }
-                            })
-                            .toList();
-
-                    if (!roundAnswers.isEmpty()) {
-                        chatRepository.saveAll(roundAnswers);
-                        allHistory.addAll(roundAnswers);
+                        log.warn("사회자 응답 없음, 대화를 종료합니다.");
+                        shouldEnd = true;
                     }
+                } finally {
+                    // 사회자가 종료했거나 다른 역할을 요청한 경우 남은 추측 실행을 취소
+                    discardSpeculation(speculative, wastedSpeculationTokens);
+                    roundSpan.end();
                 }
-                
-                // 사회자 응답 통계 반영
-                if (moderatorResponse.getTokensUsed() != null && moderatorResponse.getTokensUsed() > 0) {
-                    chatRoom.addTokensUsed(moderatorResponse.getTokensUsed());
-                }
-                chatRoom.incrementRoleParticipation("moderator");
+            }
+        
+            // 아직 진행 중인 늦은 응답도 요약에 반영 (각 요청은 ExpertInvoker의 시간 초과 또는 취소로 끝남)
+            if (!outstanding.isEmpty()) {
+                CompletableFuture.allOf(outstanding.toArray(CompletableFuture[]::new)).join();
+            }
+            cancellation.throwIfCancelled();
+            mergeLateAnswers(chatRoomId, lateAnswers, allHistory);
+
+            log.info("토론 종료: {}회차, 사유 {}", round, shouldEnd ? "moderator" : "max_rounds");
+            debateMetrics.recordDebateFinished(round, shouldEnd ? "moderator" : "max_rounds");
+            debateSpan.setAttribute("rounds", round)
+                    .setAttribute("termination", shouldEnd ? "moderator" : "max_rounds");
+
+            String summaryText = tracer.inSpan("summarize",
+                    () -> summarize(allHistory, chatRoomId, existingNote, session.getSummarizedUntilChatId(), false, cancellation));
+            finishDebate(chatRoomId, "COMPLETED");
+            listener.onEvent(DebateEventDTO.builder()
+                    .type("summary")
+                    .chatRoomId(chatRoomId)
+                    .round(round)
+                    .role("summarizer")
+                    .message(summaryText)
+                    .timestamp(Instant.now().toString())
+                    .build());
+            return new ChatResponseDTO(summaryText);
+        } catch (DebateCancelledException e) {
+            // 이미 도착한 늦은 응답은 비용을 지불했으므로 저장하고, 요약은 생략
+            mergeLateAnswers(chatRoomId, lateAnswers, allHistory);
+            log.info("토론 취소: {}회차, 사유 {}", round, cancellation.getReason());
+            debateMetrics.recordDebateFinished(round, "cancelled");
+            debateSpan.setAttribute("rounds", round)
+                    .setAttribute("termination", "cancelled");
+            finishDebate(chatRoomId, "CANCELLED");
+            throw e;
+        } catch (RuntimeException e) {
+            finishDebate(chatRoomId, "FAILED");
+            throw e;
+        }
+    }
+
+    // 전문가 요청을 병렬로 실행하고 라운드 완료 조건을 충족할 때까지 응답을 모음 (시간 초과/실패한 응답은 제외)
+    // 취소되면 진행 중인 요청을 취소하여 라운드 대기에서 바로 빠져나옴
+    // speculative에서 사회자 요청과 호환되는 추측 실행 요청은 새로 보내지 않고 그대로 사용 (사용한 항목은 제거)
+    private RoundCompletionPolicy.RoundResult runExperts(List<ModeratorResponseDTO.RequestItem> requests, String userQuestion,
+                                        List<ChatEntity> history, DebateListener listener, Long chatRoomId, int round,
+                                        DebateCancellation cancellation, Map<String, ExpertCall> speculative,
+                                        AtomicLong wastedSpeculationTokens) {
+        List<CompletableFuture<ChatEntity>> futures = new ArrayList<>();
+        // 프롬프트는 작업 스레드에서 조립하므로 토론 스레드가 이후에 히스토리를 바꿔도 영향이 없도록 복사본 사용
+        List<ChatEntity> historySnapshot = List.copyOf(history);
+        for (ModeratorResponseDTO.RequestItem item : requests) {
+            String roleKey = item.getRoleKey();
+            String questionToExperts = item.getMessages() != null ? item.getMessages() : userQuestion;
+            ExpertCall expert = takeSpeculative(speculative, roleKey, questionToExperts, round);
+            if (expert == null) {
+                expert = startExpert(roleKey, questionToExperts, historySnapshot, round, cancellation);
+            }
+            Span expertSpan = expert.span();
+            CompletableFuture<ChatEntity> future = expert.call()
+                    .exceptionally(ex -> {
+                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                        if (cause instanceof CancellationException) {
+                            expertSpan.setStatus("cancelled");
+                        } else if (cause instanceof TimeoutException) {
+                            log.warn("전문가 응답 시간 초과: {}", roleKey);
+                            debateMetrics.recordExpertTimeout(roleKey);
+                            expertSpan.setStatus("timeout");
+                        } else {
+                            expertSpan.recordError(cause);
+                        }
+                        return null;
+                    })
+                    .thenApply(answer -> {
+                        expertSpan.end();
+                        return publish(listener, chatRoomId, round, answer);
+                    });
+            futures.add(future);
+        }
+        // 사용되지 않은 추측 실행은 라운드 응답을 기다리기 전에 바로 취소
+        discardSpeculation(speculative, wastedSpeculationTokens);
+
+        return roundCompletionPolicy.await(futures);
+    }
+
+    // 전문가 요청 시작 (응답 처리는 호출자가 연결)
+    private ExpertCall startExpert(String roleKey, String question, List<ChatEntity> historySnapshot, int round,
+                                   DebateCancellation cancellation) {
+        // expert 스팬은 제출 시점부터 측정하므로 실행기 대기열에서 기다린 시간도 포함 (하위 llm.call과의 차이)
+        // 역할별 시간 초과와 헤지(느린 응답 시 중복 요청)는 ExpertInvoker가 응답 시간 분포로 정함
+        Span expertSpan = tracer.startSpan("expert").setAttribute("role", roleKey).setAttribute("round", round);
+        // researcher의 웹 검색을 포함한 프롬프트 조립도 전문가 작업 안에서 실행되어 모든 전문가가 동시에 시작됨
+        AtomicReference<List<Map<String, String>>> prompt = new AtomicReference<>();
+        CompletableFuture<ChatEntity> call;
+        try (DebateTracer.Scope scope = expertSpan.makeCurrent()) {
+            call = expertInvoker.invoke(roleKey, () -> {
+                List<Map<String, String>> messages = buildMessages(roleKey, question, historySnapshot, null);
+                prompt.set(messages);
+                return messages;
+            });
+        } catch (RuntimeException e) {
+            expertSpan.recordError(e);
+            expertSpan.end();
+            throw e;
+        }
+        // 취소(cancel)된 future는 ExpertInvoker가 진행 중인 시도의 스레드를 인터럽트하여 HTTP 요청까지 중단
+        DebateCancellation.Registration registration = cancellation.onCancel(() -> call.cancel(true));
+        call.whenComplete((answer, ex) -> registration.close());
+        return new ExpertCall(roleKey, question, expertSpan, call, prompt);
+    }
+
+    // 사회자 응답을 기다리는 동안 이번 라운드에 요청될 가능성이 높은 전문가를 미리 실행 (chat.speculation.enabled)
+    // 질문은 사용자 질문을 사용하며, 이 토론에서 버려진 추측 실행의 토큰이 예산을 넘으면 더 이상 실행하지 않음
+    private Map<String, ExpertCall> startSpeculation(List<String> roleKeys, String userQuestion, List<ChatEntity> history,
+                                                     int round, DebateCancellation cancellation, long wastedTokens) {
+        Map<String, ExpertCall> speculative = new HashMap<>();
+        if (!speculationEnabled || roleKeys.isEmpty()) {
+            return speculative;
+        }
+        if (wastedTokens >= speculationMaxWastedTokens) {
+            log.debug("추측 실행 예산 소진 (낭비 토큰 {}), 사회자 결정을 기다립니다.", wastedTokens);
+            return speculative;
+        }
+        List<ChatEntity> historySnapshot = List.copyOf(history);
+        for (String roleKey : roleKeys) {
+            if (speculationExcludedRoles.contains(roleKey) || speculative.containsKey(roleKey)) {
+                continue;
+            }
+            try {
+                ExpertCall expert = startExpert(roleKey, userQuestion, historySnapshot, round, cancellation);
+                expert.span().setAttribute("speculative", true);
+                speculative.put(roleKey, expert);
+            } catch (RejectedExecutionException e) {
+                // 실행기 대기열이 가득 차면 추측 실행을 생략 (본 요청은 사회자 결정 후 보냄)
+                log.debug("실행기 대기열이 가득 차 추측 실행을 생략합니다: {}", roleKey);
+                break;
+            }
+        }
+        return speculative;
+    }
+
+    // 사회자가 같은 역할에 호환되는 질문을 요청했으면 추측 실행 결과를 사용 (실패한 추측 실행은 사용하지 않고 새로 요청)
+    private ExpertCall takeSpeculative(Map<String, ExpertCall> speculative, String roleKey, String question, int round) {
+        ExpertCall expert = speculative.get(roleKey);
+        if (expert == null || expert.call().isCompletedExceptionally() || isErrorAnswer(expert.call().getNow(null))) {
+            return null;
+        }
+        boolean compatible = speculationMinSimilarity > 0
+                ? questionSimilarity(expert.question(), question) >= speculationMinSimilarity
+                : round == 1;
+        if (!compatible) {
+            return null;
+        }
+        speculative.remove(roleKey);
+        expert.span().setAttribute("speculation", "accepted");
+        debateMetrics.recordSpeculation(roleKey, "accepted", 0);
+        return expert;
+    }
+
+    private static boolean isErrorAnswer(ChatEntity answer) {
+        return answer != null && answer.getMessage() != null && answer.getMessage().startsWith("오류:");
+    }
+
+    // 사용되지 않은 추측 실행을 취소하고 낭비된 토큰 수를 wastedTokens에 더함
+    // 이미 끝난 요청은 실제 사용량, 진행 중에 취소한 요청은 프롬프트 추정 토큰으로 계산 (시작 전이면 0)
+    private void discardSpeculation(Map<String, ExpertCall> speculative, AtomicLong wastedTokens) {
+        for (ExpertCall expert : speculative.values()) {
+            CompletableFuture<ChatEntity> call = expert.call();
+            long wasted;
+            if (!call.cancel(true) && !call.isCompletedExceptionally()) {
+                ChatEntity answer = call.join();
+                wasted = answer != null && answer.getTokensUsed() != null ? answer.getTokensUsed() : 0L;
             } else {
-                System.out.println("[사회자 응답 없음] 대화를 종료합니다.");
-                shouldEnd = true;
+                List<Map<String, String>> prompt = expert.prompt().get();
+                wasted = prompt != null ? tokenEstimator.estimateMessages(prompt) : 0L;
             }
-            
-            System.out.println("================================\n");
+            expert.span().setAttribute("speculation", "discarded").setAttribute("wastedTokens", wasted);
+            expert.span().end();
+            debateMetrics.recordSpeculation(expert.roleKey(), "discarded", wasted);
+            wastedTokens.addAndGet(wasted);
         }
-        
-        // 최대 횟수에 도달한 경우 알림
-        if (round >= maxRounds && !shouldEnd) {
-            System.out.println("[최대 횟수 도달] " + maxRounds + "회차에 도달하여 대화를 종료합니다.");
+        speculative.clear();
+    }
+
+    // 두 질문의 단어 집합 Jaccard 유사도 (대소문자, 문장 부호 무시)
+    static double questionSimilarity(String a, String b) {
+        Set<String> left = words(a);
+        Set<String> right = words(b);
+        if (left.isEmpty() && right.isEmpty()) {
+            return 1.0;
         }
+        Set<String> union = new HashSet<>(left);
+        union.addAll(right);
+        left.retainAll(right);
+        return (double) left.size() / union.size();
+    }
 
-        String summaryText = summarize(allHistory, chatRoom, chatRoom.getNote());
-        // 노트 업데이트 (요약 저장)
-        chatRoom.setNote(summaryText);
-        // 대화방 업데이트 시간 갱신
-        chatRoomRepository.save(chatRoom);
-        return new ChatResponseDTO(summaryText);
+    private static Set<String> words(String text) {
+        Set<String> words = new HashSet<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * 시작된 전문가 요청.
+     * @param question 요청에 사용한 질문 (추측 실행 결과의 호환 여부 판단에 사용)
+     * @param prompt   작업 스레드에서 조립된 프롬프트 (조립 전이면 null, 취소 시 낭비 토큰 추정에 사용)
+     */
+    private record ExpertCall(String roleKey, String question, Span span, CompletableFuture<ChatEntity> call,
+                              AtomicReference<List<Map<String, String>>> prompt) {
+    }
+
+    // 늦게 도착한 전문가 응답을 저장하고 히스토리에 추가 (토론 스레드에서만 호출)
+    private void mergeLateAnswers(Long chatRoomId, Queue<ChatEntity> lateAnswers, List<ChatEntity> history) {
+        List<ChatEntity> merged = new ArrayList<>();
+        ChatEntity answer;
+        while ((answer = lateAnswers.poll()) != null) {
+            merged.add(answer);
+        }
+        if (merged.isEmpty()) {
+            return;
+        }
+        log.debug("늦게 도착한 전문가 응답 {}개를 히스토리에 합칩니다.", merged.size());
+        saveMessages(chatRoomId, merged);
+        history.addAll(merged);
+        debateMetrics.recordLateAnswersMerged(merged.size());
+    }
+
+    // 로컬 규칙으로 내린 결정을 LLM 사회자 응답과 같은 JSON 형식의 메시지로 변환 (토큰 사용 없음)
+    private ChatEntity localModeratorMessage(ModeratorResponseDTO decision) {
+        try {
+            return ChatEntity.builder()
+                    .message(objectMapper.writeValueAsString(decision))
+                    .sender("moderator")
+                    .timestamp(Instant.now().toString())
+                    .tokensUsed(0L)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 토론 종료 상태 기록. 저장에 실패해도 토론 결과(또는 원래 예외)는 그대로 전달
+    private void finishDebate(Long chatRoomId, String status) {
+        try {
+            tracer.inSpan("db.finishDebate", () -> debatePersistenceService.finishDebate(chatRoomId, status));
+        } catch (RuntimeException e) {
+            log.warn("토론 상태 저장 실패 ({}): {}", status, e.getMessage());
+        }
+    }
+
+    // 라운드/요약 메시지 저장 (db.saveMessages 스팬으로 기록)
+    private void saveMessages(Long chatRoomId, List<ChatEntity> messages) {
+        Span span = tracer.startSpan("db.saveMessages").setAttribute("messages", messages.size());
+        try (DebateTracer.Scope scope = span.makeCurrent()) {
+            debatePersistenceService.saveMessages(chatRoomId, messages);
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    // 전문가 응답이 도착하는 즉시 리스너로 전달
+    private ChatEntity publish(DebateListener listener, Long chatRoomId, int round, ChatEntity answer) {
+        if (answer != null) {
+            listener.onEvent(DebateEventDTO.of("message", chatRoomId, round, answer));
+        }
+        return answer;
     }
 
     private List<Map<String, String>> buildMessages(String roleKey, String userQuestion, List<ChatEntity> history, String existingNote) {
         return buildMessages(roleKey, userQuestion, history, existingNote, 0, 0);
     }
     
-    private List<Map<String, String>> buildMessages(String roleKey, String userQuestion, List<ChatEntity> history, String existingNote, int currentRound, int maxRounds) {
+    // 벤치마크(src/jmh)에서 직접 호출하므로 package-private
+    List<Map<String, String>> buildMessages(String roleKey, String userQuestion, List<ChatEntity> history, String existingNote, int currentRound, int maxRounds) {
         List<Map<String, String>> messages = new ArrayList<>();
 
-        // System 메시지
-        String systemContent = promptLoader.getPrompt(roleKey);
-        
-        // 사회자는 debate_response 지시사항을 붙이지 않음 (JSON 형식 유지를 위해)
-        if (systemContent != null) {
+        // System 메시지: 역할별로 미리 합성된 불변 프리픽스를 그대로 사용
+        // 호출마다 바이트가 동일해야 프로바이더의 프롬프트 프리픽스 캐시가 적중하므로 가변 정보는 넣지 않음
+        String systemPrefix = promptLoader.getSystemPrefix(roleKey);
+        if (systemPrefix != null) {
             Map<String, String> system = new HashMap<>();
             system.put("role", "system");
-            
-            // 기존 노트가 있으면 참고하도록 추가
-            if (existingNote != null && !existingNote.trim().isEmpty() && "summarizer".equals(roleKey)) {
-                systemContent += "\n\n기존에 작성된 요약본이 있습니다. 이 형식을 유지하면서 대화 내용을 갱신해주세요:\n" + existingNote;
-            }
-            
-            if ("moderator".equals(roleKey)) {
-                // 사회자 프롬프트에 현재 라운드 정보 추가
-                if (currentRound > 0 && maxRounds > 0) {
-                    systemContent = systemContent.replace("{currentRound}", String.valueOf(currentRound));
-                    systemContent = systemContent.replace("{maxRounds}", String.valueOf(maxRounds));
-                    
-                    // 라운드 진행률에 따른 추가 안내
-                    double progress = (double) currentRound / maxRounds;
-                    if (progress >= 0.8) {
-                        systemContent += "\n\n⚠️ 경고: 최대 라운드의 80% 이상 진행되었습니다. 반드시 종료를 고려하세요.";
-                    } else if (progress >= 0.7) {
-                        systemContent += "\n\n💡 안내: 최대 라운드의 70% 이상 진행되었습니다. 종료를 적극적으로 고려하세요.";
-                    }
-                }
-                system.put("content", systemContent);
-            } else {
-                // 다른 역할들은 debate_response 지시사항 추가
-                String instruction = promptLoader.getInstruction("debate_response");
-                system.put("content", instruction != null ? systemContent + "\n\n" + instruction : systemContent);
-            }
+            system.put("content", systemPrefix);
             messages.add(system);
         }
 
@@ -292,13 +620,11 @@ public class ChatService {
         
         // researcher 역할일 때 모더레이터가 제안한 검색어로 웹 검색 수행
         if ("researcher".equals(roleKey)) {
-            System.out.println("\n[Researcher 역할 활성화] 웹 검색을 수행합니다.");
-            
             // userQuestion은 모더레이터가 제안한 단일 검색어
             String searchQuery = userQuestion.trim();
             
             if (searchQuery.isEmpty()) {
-                System.out.println("[경고] 모더레이터가 검색어를 제안하지 않았습니다. 원본 질문을 사용합니다.");
+                log.debug("모더레이터가 검색어를 제안하지 않아 원본 질문으로 검색합니다.");
                 // 히스토리에서 원본 사용자 질문 찾기
                 String originalQuestion = history.stream()
                     .filter(chat -> "user".equals(chat.getSender()))
@@ -308,44 +634,98 @@ public class ChatService {
                 searchQuery = originalQuestion;
             }
             
-            System.out.println("[모더레이터 제안 검색어] " + searchQuery);
-            
-            try {
-                // 웹 검색 수행 (5개 결과 요청)
-                String searchResults = googleCustomSearchService.formatSearchResults(searchQuery, 5);
-                
-                // 검색 결과를 Researcher 에이전트에게 전달
-                user.put("content", "다음 검색어로 웹 검색이 수행되었습니다: " + searchQuery + "\n\n" + searchResults);
-                System.out.println("[Researcher] 검색 결과를 GPT 프롬프트에 포함했습니다.");
-            } catch (Exception e) {
-                System.err.println("[Researcher 검색 실패] " + e.getMessage());
-                e.printStackTrace();
-                // 검색 실패 시 검색어만 전달
-                user.put("content", "다음 검색어로 웹 검색을 수행해주세요: " + searchQuery + "\n\n(검색 결과를 가져오는 중 오류가 발생했습니다.)");
-            }
+            user.put("content", researchContent(searchQuery));
         } else {
             user.put("content", userQuestion);
         }
         
         messages.add(user);
 
-        // 최근 다른 에이전트의 응답들 추가
+        // 라운드 정보, 기존 노트 등 호출마다 달라지는 내용은 마지막 메시지로 전달
+        Map<String, String> trailing = buildTrailingContext(roleKey, existingNote, currentRound, maxRounds);
+
+        // 최근 다른 에이전트의 응답들 추가 (역할별 토큰 예산 안에서)
         int lastUserIdx = findLastUserIndex(history);
         if (lastUserIdx >= 0) {
+            List<ChatEntity> turns = new ArrayList<>();
             for (int i = lastUserIdx + 1; i < history.size(); i++) {
                 ChatEntity chat = history.get(i);
                 if (!chat.getSender().equals(roleKey) && !chat.getSender().equals("user")) {
-                    Map<String, String> assistant = new HashMap<>();
-                    assistant.put("role", "assistant");
-                    assistant.put("content", chat.getMessage());
-                    messages.add(assistant);
+                    turns.add(chat);
                 }
             }
+            List<Map<String, String>> fixedMessages = new ArrayList<>(messages);
+            if (trailing != null) {
+                fixedMessages.add(trailing);
+            }
+            messages.addAll(contextWindowBuilder.fitHistory(roleKey, fixedMessages, turns));
+        }
+
+        if (trailing != null) {
+            messages.add(trailing);
         }
 
         return messages;
     }
 
+    // 웹 검색(5개 결과)을 researcher 탐색 지시로 변환. 검색 시간 초과/실패 시 검색어만 전달
+    // 전문가 작업 스레드에서 실행되므로 헤지로 취소되면 인터럽트되어 바로 빠져나옴
+    private String researchContent(String searchQuery) {
+        CompletableFuture<List<GoogleCustomSearchService.SearchResult>> search = googleCustomSearchService.searchAsync(searchQuery, 5)
+                .orTimeout(researcherSearchTimeoutMs, TimeUnit.MILLISECONDS);
+        try {
+            List<GoogleCustomSearchService.SearchResult> results = search.get();
+            String searchResults = googleCustomSearchService.formatSearchResults(searchQuery, results);
+
+            // 검색 결과를 Researcher 에이전트에게 전달
+            return "다음 검색어로 웹 검색이 수행되었습니다: " + searchQuery + "\n\n" + searchResults;
+        } catch (InterruptedException e) {
+            // 전문가 요청이 취소된 경우 진행 중인 검색 HTTP 요청도 중단 (같은 검색을 기다리는 다른 호출자가 없을 때)
+            search.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                log.warn("Researcher 검색 시간 초과 ({}ms): {}", researcherSearchTimeoutMs, searchQuery);
+            } else {
+                log.warn("Researcher 검색 실패: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage(), e);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Researcher 검색 실패: {}", e.getMessage(), e);
+        }
+        // 검색 실패 시 검색어만 전달
+        return "다음 검색어로 웹 검색을 수행해주세요: " + searchQuery + "\n\n(검색 결과를 가져오는 중 오류가 발생했습니다.)";
+    }
+
+    private Map<String, String> buildTrailingContext(String roleKey, String existingNote, int currentRound, int maxRounds) {
+        StringBuilder content = new StringBuilder();
+
+        // 기존 노트가 있으면 참고하도록 추가
+        if ("summarizer".equals(roleKey) && existingNote != null && !existingNote.trim().isEmpty()) {
+            content.append("기존에 작성된 요약본이 있습니다. 이 형식을 유지하면서 대화 내용을 갱신해주세요:\n").append(existingNote);
+        }
+
+        // 사회자에게 현재 라운드 정보 전달
+        if ("moderator".equals(roleKey) && currentRound > 0 && maxRounds > 0) {
+            content.append("현재 라운드: ").append(currentRound).append(" / 최대 라운드: ").append(maxRounds);
+
+            // 라운드 진행률에 따른 추가 안내
+            double progress = (double) currentRound / maxRounds;
+            if (progress >= 0.8) {
+                content.append("\n\n⚠️ 경고: 최대 라운드의 80% 이상 진행되었습니다. 반드시 종료를 고려하세요.");
+            } else if (progress >= 0.7) {
+                content.append("\n\n💡 안내: 최대 라운드의 70% 이상 진행되었습니다. 종료를 적극적으로 고려하세요.");
+            }
+        }
+
+        if (content.length() == 0) {
+            return null;
+        }
+        Map<String, String> trailing = new HashMap<>();
+        trailing.put("role", "system");
+        trailing.put("content", content.toString());
+        return trailing;
+    }
+
     private int findLastUserIndex(List<ChatEntity> history) {
         for (int i = history.size() - 1; i >= 0; i--) {
             if (history.get(i).getSender().equals("user")) {
@@ -355,46 +735,110 @@ public class ChatService {
         return -1;
     }
 
-    private String summarize(List<ChatEntity> history, ChatRoom chatRoom, String existingNote) {
-        if (history.isEmpty()) return "요약할 대화 내용이 없습니다.";
+    // 요약 생성 후 노트와 요약 체크포인트(노트에 마지막으로 반영된 메시지 ID)를 갱신
+    // 점진 모드에서는 체크포인트 이후의 메시지만 기존 노트와 함께 요약자에게 전달
+    private String summarize(List<ChatEntity> history, Long chatRoomId, String existingNote, Long checkpointId, boolean fullResummarize,
+                             DebateCancellation cancellation) {
+        boolean hasNote = existingNote != null && !existingNote.trim().isEmpty();
+        boolean incremental = !fullResummarize && "incremental".equalsIgnoreCase(summarizerMode)
+                && hasNote && checkpointId != null;
 
-        String summarizerPrompt = promptLoader.getPrompt("summarizer");
-        if (summarizerPrompt == null) return "요약 프롬프트를 찾을 수 없습니다.";
+        List<ChatEntity> targets = history;
+        if (incremental) {
+            targets = history.stream()
+                    .filter(chat -> chat.getId() != null && chat.getId() > checkpointId)
+                    .toList();
+            // 새로 반영할 메시지가 없으면 기존 노트 유지
+            if (targets.isEmpty()) return existingNote;
+        }
 
-        List<Map<String, String>> messages = new ArrayList<>();
-        Map<String, String> system = new HashMap<>();
-        system.put("role", "system");
-        
-        // 기존 노트가 있으면 형식 유지하도록 지시
-        if (existingNote != null && !existingNote.trim().isEmpty()) {
-            summarizerPrompt += "\n\n기존에 작성된 요약본이 있습니다. 이 형식을 유지하면서 대화 내용을 갱신해주세요:\n" + existingNote;
+        String summaryText;
+        Long newCheckpointId = null;
+        String summarizerPrefix = promptLoader.getSystemPrefix("summarizer");
+        if (targets.isEmpty()) {
+            summaryText = "요약할 대화 내용이 없습니다.";
+        } else if (summarizerPrefix == null) {
+            summaryText = "요약 프롬프트를 찾을 수 없습니다.";
+        } else {
+            Map<String, String> system = new HashMap<>();
+            system.put("role", "system");
+            system.put("content", summarizerPrefix);
+
+            // 전체 요약이 예산을 넘으면 구간으로 나눠 차례로 요약 (앞 구간의 요약을 다음 구간의 기존 노트로 사용)
+            List<List<ChatEntity>> chunks = incremental
+                    ? List.of(targets)
+                    : contextWindowBuilder.split("summarizer", List.of(system), targets);
+            if (chunks.size() > 1) {
+                log.debug("대화가 요약 예산을 넘어 {}개 구간으로 나눠 요약합니다. (메시지 {}개)", chunks.size(), targets.size());
+            }
+            String note = hasNote ? existingNote : null;
+            long tokensUsed = 0;
+            ChatEntity summary = null;
+            for (int i = 0; i < chunks.size(); i++) {
+                summary = requestSummary(system, chunks.get(i), note, incremental || i > 0, cancellation);
+                // 취소로 중단된 경우 오류 응답으로 노트를 덮어쓰지 않음
+                cancellation.throwIfCancelled();
+                if (summary == null || isErrorAnswer(summary)) {
+                    break;
+                }
+                tokensUsed += summary.getTokensUsed() != null ? summary.getTokensUsed() : 0L;
+                note = summary.getMessage();
+            }
+            if (summary != null) {
+                // 구간별 요약 호출의 토큰을 최종 요약 메시지 하나에 합산
+                if (!isErrorAnswer(summary)) {
+                    summary.setTokensUsed(tokensUsed);
+                }
+                // 요약 메시지 저장 및 통계 업데이트
+                saveMessages(chatRoomId, List.of(summary));
+                summaryText = summary.getMessage();
+                // 요약에 실패한 경우 체크포인트를 비워 다음 요약은 전체 대화로 수행
+                if (summaryText != null && !summaryText.startsWith("오류:")) {
+                    newCheckpointId = summary.getId();
+                }
+            } else {
+                summaryText = "요약 생성에 실패했습니다.";
+            }
         }
-        
-        system.put("content", summarizerPrompt);
+
+        // 노트 업데이트 (요약 저장)
+        Long checkpoint = newCheckpointId;
+        tracer.inSpan("db.updateNote", () -> debatePersistenceService.updateNote(chatRoomId, summaryText, checkpoint));
+        return summaryText;
+    }
+    
+    // 요약자 한 번 호출. continuing이면 note 이후에 추가된 대화로, 아니면 note 형식을 유지한 전체 갱신으로 요청
+    private ChatEntity requestSummary(Map<String, String> system, List<ChatEntity> turns, String note, boolean continuing,
+                                      DebateCancellation cancellation) {
+        List<Map<String, String>> messages = new ArrayList<>();
         messages.add(system);
 
-        for (ChatEntity chat : history) {
-            Map<String, String> msg = new HashMap<>();
-            String role = chat.getSender().equals("user") ? "user" : "assistant";
-            msg.put("role", role);
-            msg.put("content", chat.getMessage());
-            messages.add(msg);
+        // 기존 노트가 있으면 형식 유지하도록 지시 (가변 내용이므로 마지막 메시지로 전달)
+        Map<String, String> trailing = null;
+        if (note != null && !note.trim().isEmpty()) {
+            trailing = new HashMap<>();
+            trailing.put("role", "system");
+            trailing.put("content", continuing
+                    ? "기존에 작성된 요약본이 있습니다. 위 대화는 이 요약본 이후에 새로 추가된 내용입니다. "
+                            + "기존 요약의 내용과 형식을 유지하면서 새 대화 내용을 반영해 갱신해주세요:\n" + note
+                    : "기존에 작성된 요약본이 있습니다. 이 형식을 유지하면서 대화 내용을 갱신해주세요:\n" + note);
         }
 
-        ChatEntity summary = gptService.requestGpt(messages, "summarizer");
-        if (summary != null) {
-            summary.setChatRoom(chatRoom);
-            // 통계 업데이트
-            if (summary.getTokensUsed() != null && summary.getTokensUsed() > 0) {
-                chatRoom.addTokensUsed(summary.getTokensUsed());
-            }
-            chatRoom.incrementRoleParticipation("summarizer");
-            chatRepository.save(summary);
-            return summary.getMessage();
+        List<Map<String, String>> fixedMessages = new ArrayList<>(messages);
+        if (trailing != null) {
+            fixedMessages.add(trailing);
+        }
+        messages.addAll(contextWindowBuilder.fitHistory("summarizer", fixedMessages, turns));
+        if (trailing != null) {
+            messages.add(trailing);
+        }
+
+        try (DebateCancellation.Registration interrupt = cancellation.interruptOnCancel();
+             FairLlmScheduler.Slot slot = llmScheduler.acquire("summarizer")) {
+            return gptService.requestGpt(messages, "summarizer");
         }
-        return "요약 생성에 실패했습니다.";
     }
-    
+
     // 대화 기록 조회
     @Transactional(readOnly = true)
     public List<ChatEntity> getChatHistory(Long chatRoomId, Long userId) {
@@ -426,28 +870,25 @@ public class ChatService {
         return statistics;
     }
 
-    @Transactional
+    // 요청 시 전체 대화를 처음부터 다시 요약 (요약 생성 중에는 트랜잭션을 열어두지 않음)
     public ChatResponseDTO summarizeConversation(Long chatRoomId, Long userId) {
-        Member member = memberRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
-        
-        ChatRoom chatRoom = chatRoomRepository.findByIdAndMember(chatRoomId, member)
-                .orElseThrow(() -> new RuntimeException("대화방을 찾을 수 없거나 접근 권한이 없습니다."));
-        
-        List<ChatEntity> chatHistory = chatRepository.findByChatRoomOrderByTimestampAsc(chatRoom);
-        String summaryText = summarize(chatHistory, chatRoom, chatRoom.getNote());
-        // 노트 업데이트
-        chatRoom.setNote(summaryText);
-        chatRoomRepository.save(chatRoom);
-        return new ChatResponseDTO(summaryText);
+        DebateSession session = debatePersistenceService.loadSession(chatRoomId, userId);
+        MDC.put(FairLlmScheduler.MDC_MEMBER_ID, String.valueOf(userId));
+        try {
+            String summaryText = tracer.inSpan("summarize",
+                    () -> summarize(session.getHistory(), chatRoomId, session.getNote(), null, true, new DebateCancellation()));
+            return new ChatResponseDTO(summaryText);
+        } finally {
+            MDC.remove(FairLlmScheduler.MDC_MEMBER_ID);
+        }
     }
 
-    // 사회자 응답 JSON 파싱
-    private ModeratorResponseDTO parseModerator(String responseText) {
+    // 사회자 응답 JSON 파싱 (벤치마크에서 직접 호출하므로 package-private)
+    ModeratorResponseDTO parseModerator(String responseText) {
         try {
             // 에러 메시지인 경우 파싱하지 않음
             if (responseText == null || responseText.trim().startsWith("오류:")) {
-                System.err.println("사회자 응답 파싱 실패: 에러 메시지 감지 - " + responseText);
+                log.debug("사회자 응답이 오류 메시지입니다: {}", responseText);
                 return null;
             }
             
@@ -461,7 +902,7 @@ public class ChatService {
             
             return objectMapper.readValue(jsonText, ModeratorResponseDTO.class);
         } catch (Exception e) {
-            System.err.println("사회자 응답 파싱 실패: " + e.getMessage());
+            log.debug("사회자 응답 JSON 파싱 실패: {}", e.getMessage());
             return null;
         }
     }
@@ -0,0 +1,183 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ContextBudgetProperties;
+import com.example.demo.entity.ChatEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 역할별 토큰 예산 안에서 프롬프트에 포함할 이전 발언을 고릅니다.
+ *
+ * 예산을 넘으면 다음 순서로 줄입니다.
+ * 1. 역할별 마지막 발언은 항상 유지
+ * 2. 남은 예산 안에서 최신 발언부터 채움
+ * 3. 제외된 이전 발언은 짧은 다이제스트 하나로 접어서 앞에 붙임 (유지한 발언에 가까운 최근 발언부터)
+ * 예산 안에서 빠짐없이 다뤄야 하는 전체 요약은 split()으로 구간을 나눠 차례로 처리합니다.
+ */
+@Slf4j
+@Component
+public class ContextWindowBuilder {
+    // 필수 발언을 잘라서라도 넣을 때 발언당 최소 토큰 수
+    private static final int MIN_TOKENS_PER_TURN = 64;
+
+    private final ContextBudgetProperties properties;
+    private final TokenEstimator tokenEstimator;
+
+    public ContextWindowBuilder(ContextBudgetProperties properties, TokenEstimator tokenEstimator) {
+        this.properties = properties;
+        this.tokenEstimator = tokenEstimator;
+    }
+
+    /**
+     * @param roleKey 예산을 적용할 역할
+     * @param head    항상 포함되는 앞부분 메시지 (system, user 질문 등)
+     * @param turns   시간순으로 정렬된 이전 발언
+     * @return head 뒤에 붙일 메시지 목록 (다이제스트 + 선택된 발언, 시간순)
+     */
+    public List<Map<String, String>> fitHistory(String roleKey, List<Map<String, String>> head, List<ChatEntity> turns) {
+        List<Map<String, String>> result = new ArrayList<>();
+        if (turns.isEmpty()) {
+            return result;
+        }
+
+        int budget = Math.max(0, properties.budgetFor(roleKey) - tokenEstimator.estimateMessages(head));
+        int n = turns.size();
+        List<Map<String, String>> candidates = new ArrayList<>(n);
+        int[] cost = new int[n];
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            Map<String, String> message = toMessage(turns.get(i), turns.get(i).getMessage());
+            candidates.add(message);
+            cost[i] = tokenEstimator.estimateMessage(message);
+            total += cost[i];
+        }
+        if (total <= budget) {
+            return candidates;
+        }
+
+        boolean[] keep = new boolean[n];
+        int used = 0;
+        int keptCount = 0;
+
+        // 1. 역할별 마지막 발언 유지
+        Set<String> seenSenders = new HashSet<>();
+        for (int i = n - 1; i >= 0; i--) {
+            if (seenSenders.add(turns.get(i).getSender())) {
+                keep[i] = true;
+                used += cost[i];
+                keptCount++;
+            }
+        }
+
+        // 2. 다이제스트 자리를 남겨두고 최신 발언부터 채움
+        int digestReserve = Math.min(properties.getDigestMaxTokens(), budget / 4);
+        for (int i = n - 1; i >= 0; i--) {
+            if (keep[i]) {
+                continue;
+            }
+            if (used + cost[i] > budget - digestReserve) {
+                break;
+            }
+            keep[i] = true;
+            used += cost[i];
+            keptCount++;
+        }
+
+        // 필수 발언만으로도 예산을 넘으면 발언을 잘라서 맞춤
+        int perTurnLimit = used > budget ? Math.max(MIN_TOKENS_PER_TURN, budget / keptCount) : Integer.MAX_VALUE;
+
+        log.debug("{} 프롬프트 예산 초과: 발언 {}개 중 {}개 유지 (예산 {}, 전체 {})", roleKey, n, keptCount, budget, total);
+
+        // 3. 제외된 발언은 다이제스트로 접음
+        Map<String, String> digest = buildDigest(turns, keep);
+        if (digest != null) {
+            result.add(digest);
+        }
+        for (int i = 0; i < n; i++) {
+            if (!keep[i]) {
+                continue;
+            }
+            if (cost[i] > perTurnLimit) {
+                result.add(toMessage(turns.get(i), tokenEstimator.truncate(turns.get(i).getMessage(), perTurnLimit)));
+            } else {
+                result.add(candidates.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 전체 대화를 예산에 맞는 연속 구간으로 나눕니다. (시간순)
+     * 구간마다 함께 보낼 이전 구간의 요약을 위해 summary-reserve-tokens만큼 남겨두며,
+     * 예산보다 큰 발언 하나는 단독 구간이 되어 fitHistory에서 잘립니다.
+     */
+    public List<List<ChatEntity>> split(String roleKey, List<Map<String, String>> head, List<ChatEntity> turns) {
+        int budget = Math.max(1, properties.budgetFor(roleKey) - tokenEstimator.estimateMessages(head)
+                - properties.getSummaryReserveTokens());
+        List<List<ChatEntity>> chunks = new ArrayList<>();
+        List<ChatEntity> current = new ArrayList<>();
+        int used = 0;
+        for (ChatEntity turn : turns) {
+            int cost = tokenEstimator.estimateMessage(toMessage(turn, turn.getMessage()));
+            if (!current.isEmpty() && used + cost > budget) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                used = 0;
+            }
+            current.add(turn);
+            used += cost;
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    // 유지한 발언 바로 앞의 최근 발언부터 거꾸로 채운 뒤 시간순으로 출력
+    private Map<String, String> buildDigest(List<ChatEntity> turns, boolean[] keep) {
+        String header = "[이전 발언 요약] 분량 제한으로 생략된 이전 발언 중 최근 발언의 앞부분입니다.\n";
+        List<String> lines = new ArrayList<>();
+        int tokens = tokenEstimator.estimate(header);
+        for (int i = turns.size() - 1; i >= 0; i--) {
+            if (keep[i]) {
+                continue;
+            }
+            String text = turns.get(i).getMessage() != null ? turns.get(i).getMessage().replace('\n', ' ') : "";
+            if (text.length() > properties.getDigestSnippetChars()) {
+                text = text.substring(0, properties.getDigestSnippetChars()) + "...";
+            }
+            String line = "- " + turns.get(i).getSender() + ": " + text + "\n";
+            int lineTokens = tokenEstimator.estimate(line);
+            if (tokens + lineTokens > properties.getDigestMaxTokens()) {
+                break;
+            }
+            lines.add(line);
+            tokens += lineTokens;
+        }
+        if (lines.isEmpty()) {
+            return null;
+        }
+        StringBuilder digest = new StringBuilder(header);
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            digest.append(lines.get(i));
+        }
+        Map<String, String> message = new HashMap<>();
+        message.put("role", "assistant");
+        message.put("content", digest.toString());
+        return message;
+    }
+
+    private Map<String, String> toMessage(ChatEntity chat, String content) {
+        Map<String, String> message = new HashMap<>();
+        message.put("role", "user".equals(chat.getSender()) ? "user" : "assistant");
+        message.put("content", content);
+        return message;
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BatchRequestDTO;
+import com.example.demo.dto.BatchStatusDTO;
+import com.example.demo.dto.ChatRequestDTO;
+import com.example.demo.dto.ChatResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 대량 질문 배치 토론 (야간 평가 등).
+ * - 질문마다 같은 설정(promptKeys, conversationRounds)으로 새 대화방에서 토론하고, 결과를 질문 단위로 results.ndjson에 추가
+ * - batchExecutor(동시 실행 수 제한)에서 실행하며, LLM 호출은 속도 제한기의 batch 레인으로 대화형 요청보다 뒤에 허가를 받음
+ * - 배치 정의(batch.json)와 결과 파일은 chat.batch.dir 아래에 저장되어, 서버가 재시작되면 결과가 없는 질문부터 이어서 실행
+ * - 실패한 질문은 실패 결과를 기록한 뒤 배치 대기열 끝에서 다시 실행하며, max-attempts번 실패해야 실패로 확정
+ *   (실패 횟수는 결과 파일의 실패 줄 수로 세므로 재시작 후에도 이어짐)
+ * 실행 중에 중단된 질문은 처음부터 다시 실행되므로 중단 시점까지 생성된 대화방은 결과에 포함되지 않은 채 남습니다.
+ */
+@Slf4j
+@Service
+public class DebateBatchService {
+    private static final String MANIFEST_FILE = "batch.json";
+    private static final String RESULTS_FILE = "results.ndjson";
+
+    private final ChatService chatService;
+    private final Executor batchExecutor;
+    private final ObjectMapper objectMapper;
+    private final DebateMetrics debateMetrics;
+    private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+
+    @Value("${chat.batch.dir:batches}")
+    private Path batchDir;
+
+    @Value("${chat.batch.max-questions:1000}")
+    private int maxQuestions;
+
+    // 질문 하나를 실행하는 최대 횟수 (일시적인 속도 제한, 재시작 등으로 실패한 질문 재시도)
+    @Value("${chat.batch.max-attempts:3}")
+    private int maxAttempts;
+
+    public DebateBatchService(ChatService chatService, @Qualifier("batchExecutor") Executor batchExecutor,
+                              ObjectMapper objectMapper, DebateMetrics debateMetrics) {
+        this.chatService = chatService;
+        this.batchExecutor = batchExecutor;
+        this.objectMapper = objectMapper;
+        this.debateMetrics = debateMetrics;
+    }
+
+    public String submit(Long userId, BatchRequestDTO request) {
+        List<String> questions = request.getQuestions() == null ? List.of() : request.getQuestions().stream()
+                .filter(question -> question != null && !question.isBlank())
+                .map(String::trim)
+                .toList();
+        if (questions.isEmpty()) {
+            throw new IllegalArgumentException("질문이 없습니다.");
+        }
+        if (questions.size() > maxQuestions) {
+            throw new IllegalArgumentException("배치 하나에 최대 " + maxQuestions + "개의 질문만 등록할 수 있습니다.");
+        }
+
+        Manifest manifest = new Manifest(UUID.randomUUID().toString(), userId, questions, request.getPromptKeys(),
+                request.getConversationRounds(), Instant.now().toString());
+        Path dir = batchDir.resolve(manifest.batchId());
+        try {
+            Files.createDirectories(dir);
+            // 배치 정의를 먼저 기록해야 실행 중 서버가 중단되어도 재시작 시 이어서 실행됨
+            objectMapper.writeValue(dir.resolve(MANIFEST_FILE).toFile(), manifest);
+        } catch (IOException e) {
+            throw new UncheckedIOException("배치를 저장할 수 없습니다: " + dir, e);
+        }
+        Batch batch = new Batch(manifest, dir, List.of());
+        batches.put(manifest.batchId(), batch);
+        schedule(batch);
+        log.info("배치 등록: {} (질문 {}개)", manifest.batchId(), questions.size());
+        return manifest.batchId();
+    }
+
+    public Optional<BatchStatusDTO> getStatus(String batchId, Long userId) {
+        return find(batchId, userId).map(Batch::toDTO);
+    }
+
+    // 지금까지 기록된 결과 파일 (시도 하나당 한 줄, 완료 순서). 질문마다 마지막 줄이 최종 결과
+    public Optional<Path> getResults(String batchId, Long userId) {
+        return find(batchId, userId).map(batch -> batch.dir.resolve(RESULTS_FILE));
+    }
+
+    // 서버 시작 시 저장된 배치를 읽고, 결과가 없거나 재시도 횟수가 남은 실패 질문을 다시 실행
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        if (!Files.isDirectory(batchDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(batchDir, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                Path manifestFile = dir.resolve(MANIFEST_FILE);
+                if (!Files.exists(manifestFile)) {
+                    continue;
+                }
+                try {
+                    Manifest manifest = objectMapper.readValue(manifestFile.toFile(), Manifest.class);
+                    Batch batch = new Batch(manifest, dir, readResults(dir.resolve(RESULTS_FILE)));
+                    batches.put(manifest.batchId(), batch);
+                    int remaining = schedule(batch);
+                    if (remaining > 0) {
+                        log.info("배치 재개: {} (남은 질문 {}개)", manifest.batchId(), remaining);
+                    }
+                } catch (IOException e) {
+                    log.warn("배치를 읽을 수 없습니다: {} ({})", dir, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("배치 디렉토리를 읽을 수 없습니다: {} ({})", batchDir, e.getMessage());
+        }
+    }
+
+    private Optional<Batch> find(String batchId, Long userId) {
+        Batch batch = batches.get(batchId);
+        if (batch == null || !batch.manifest.userId().equals(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(batch);
+    }
+
+    // 끝나지 않은 질문(결과가 없거나 재시도할 실패)을 실행 큐에 넣고 그 수를 반환
+    private int schedule(Batch batch) {
+        List<String> questions = batch.manifest.questions();
+        int scheduled = 0;
+        for (int index = 0; index < questions.size(); index++) {
+            if (batch.isFinished(index)) {
+                continue;
+            }
+            int questionIndex = index;
+            batchExecutor.execute(() -> run(batch, questionIndex));
+            scheduled++;
+        }
+        return scheduled;
+    }
+
+    private void run(Batch batch, int index) {
+        Manifest manifest = batch.manifest;
+        ChatRequestDTO request = new ChatRequestDTO();
+        request.setUserId(manifest.userId());
+        request.setQuestion(manifest.questions().get(index));
+        request.setPromptKeys(manifest.promptKeys());
+        request.setConversationRounds(manifest.conversationRounds());
+        int attempt = batch.nextAttempt(index);
+
+        // 이 스레드와 gptExecutor 작업(MDC 전파)의 LLM 호출을 배치 레인으로 표시
+        MDC.put(LlmRateLimiter.MDC_LANE, LlmRateLimiter.BATCH_LANE);
+        long startNanos = System.nanoTime();
+        // 새로 만들어진 대화방 ID는 토론 이벤트로 전달됨
+        AtomicReference<Long> chatRoomId = new AtomicReference<>();
+        Result result;
+        try {
+            ChatResponseDTO response = chatService.askQuestion(request, event -> chatRoomId.compareAndSet(null, event.getChatRoomId()));
+            result = new Result(index, request.getQuestion(), chatRoomId.get(), response.getAnswer(), null, attempt,
+                    (System.nanoTime() - startNanos) / 1_000_000, Instant.now().toString());
+            debateMetrics.recordBatchQuestion("completed");
+        } catch (Exception e) {
+            log.warn("배치 질문 실패: {} #{} ({}/{}회, {})", manifest.batchId(), index, attempt, maxAttempts, e.getMessage());
+            result = new Result(index, request.getQuestion(), chatRoomId.get(), null, e.getMessage(), attempt,
+                    (System.nanoTime() - startNanos) / 1_000_000, Instant.now().toString());
+            debateMetrics.recordBatchQuestion("failed");
+        } finally {
+            MDC.remove(LlmRateLimiter.MDC_LANE);
+        }
+        if (batch.record(result)) {
+            // 다른 질문 뒤에서 다시 실행하여 일시적인 실패가 지나갈 시간을 둠
+            batchExecutor.execute(() -> run(batch, index));
+        }
+    }
+
+    // 결과 파일에 기록된 결과. 중단으로 잘린 마지막 줄은 무시하여 그 질문을 다시 실행
+    private List<Result> readResults(Path resultsFile) throws IOException {
+        List<Result> results = new ArrayList<>();
+        if (!Files.exists(resultsFile)) {
+            return results;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(resultsFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    results.add(objectMapper.readValue(line, Result.class));
+                } catch (IOException e) {
+                    log.warn("배치 결과의 불완전한 줄을 건너뜁니다: {}", resultsFile);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 배치 정의 (batch.json)
+     */
+    record Manifest(String batchId, Long userId, List<String> questions, List<String> promptKeys,
+                    Integer conversationRounds, String createdAt) {
+    }
+
+    /**
+     * 질문 한 번 실행의 결과 (results.ndjson의 한 줄). 실패하면 error만 채워짐
+     */
+    record Result(int index, String question, Long chatRoomId, String summary, String error, int attempt,
+                  long durationMs, String finishedAt) {
+    }
+
+    private class Batch {
+        private final Manifest manifest;
+        private final Path dir;
+        private final Set<Integer> finished;
+        // 아직 끝나지 않은 질문의 실패 횟수
+        private final Map<Integer, Integer> failures = new HashMap<>();
+        private int completed;
+        private int failed;
+        private String updatedAt;
+
+        Batch(Manifest manifest, Path dir, List<Result> results) {
+            this.manifest = manifest;
+            this.dir = dir;
+            this.finished = new HashSet<>();
+            this.updatedAt = manifest.createdAt();
+            for (Result result : results) {
+                count(result);
+            }
+        }
+
+        synchronized boolean isFinished(int index) {
+            return finished.contains(index);
+        }
+
+        synchronized int nextAttempt(int index) {
+            return failures.getOrDefault(index, 0) + 1;
+        }
+
+        // 결과 한 줄을 추가하고 바로 디스크로 내보냄 (재시작 시 완료 여부의 기준). 다시 실행해야 하면 true
+        synchronized boolean record(Result result) {
+            try (BufferedWriter writer = Files.newBufferedWriter(dir.resolve(RESULTS_FILE), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(objectMapper.writeValueAsString(result));
+                writer.newLine();
+            } catch (IOException e) {
+                // 기록되지 않은 질문은 재시작 시 다시 실행됨
+                log.warn("배치 결과 기록 실패: {} #{} ({})", manifest.batchId(), result.index(), e.getMessage());
+                return false;
+            }
+            count(result);
+            if (finished.size() == manifest.questions().size()) {
+                log.info("배치 완료: {} (성공 {}, 실패 {})", manifest.batchId(), completed, failed);
+            }
+            return !finished.contains(result.index());
+        }
+
+        // 성공하거나 max-attempts번 실패하면 끝난 질문으로 셈
+        private void count(Result result) {
+            int index = result.index();
+            if (finished.contains(index)) {
+                return;
+            }
+            updatedAt = result.finishedAt();
+            if (result.error() == null) {
+                finished.add(index);
+                failures.remove(index);
+                completed++;
+                return;
+            }
+            int attempts = failures.merge(index, 1, Integer::sum);
+            if (attempts >= maxAttempts) {
+                finished.add(index);
+                failures.remove(index);
+                failed++;
+            }
+        }
+
+        synchronized BatchStatusDTO toDTO() {
+            int total = manifest.questions().size();
+            return new BatchStatusDTO(manifest.batchId(), finished.size() == total ? "COMPLETED" : "RUNNING", total,
+                    completed, failed, manifest.promptKeys(), manifest.conversationRounds(), manifest.createdAt(), updatedAt);
+        }
+    }
+}
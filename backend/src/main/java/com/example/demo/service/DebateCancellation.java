@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 토론 취소 토큰.
+ * 클라이언트 연결 종료(SSE) 또는 작업 취소 요청 시 cancel()이 호출되며, 등록된 콜백으로 진행 중인 호출을 중단합니다.
+ * - 전문가 요청: future 취소 → ExpertInvoker가 실행 스레드를 인터럽트 (LLM HTTP 요청과 검색 요청도 함께 중단)
+ * - 사회자/요약 요청: 토론 스레드를 인터럽트 (interruptOnCancel 범위 안에서만)
+ * ChatService는 라운드 경계마다 확인하고 DebateCancelledException으로 토론을 끝냅니다.
+ */
+public class DebateCancellation {
+    private final List<Runnable> callbacks = new ArrayList<>();
+    private volatile String reason;
+
+    // 이미 취소된 경우 무시. 콜백은 등록 해제와 겹치지 않도록 잠금 안에서 실행
+    public synchronized void cancel(String reason) {
+        if (this.reason != null) {
+            return;
+        }
+        this.reason = reason;
+        for (Runnable callback : List.copyOf(callbacks)) {
+            callback.run();
+        }
+        callbacks.clear();
+    }
+
+    public boolean isCancelled() {
+        return reason != null;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void throwIfCancelled() {
+        if (reason != null) {
+            throw new DebateCancelledException(reason);
+        }
+    }
+
+    // 취소 시 실행할 콜백 등록 (이미 취소되었으면 바로 실행). 닫으면 등록 해제
+    public synchronized Registration onCancel(Runnable callback) {
+        if (reason != null) {
+            callback.run();
+            return () -> {};
+        }
+        callbacks.add(callback);
+        return () -> {
+            synchronized (this) {
+                callbacks.remove(callback);
+            }
+        };
+    }
+
+    // 현재 스레드의 블로킹 호출 동안 취소되면 인터럽트. 닫을 때 취소로 설정된 인터럽트 상태를 지움
+    public Registration interruptOnCancel() {
+        Thread thread = Thread.currentThread();
+        Registration registration = onCancel(thread::interrupt);
+        return () -> {
+            registration.close();
+            if (isCancelled()) {
+                Thread.interrupted();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
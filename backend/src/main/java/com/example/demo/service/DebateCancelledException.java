@@ -0,0 +1,12 @@
+package com.example.demo.service;
+
+/**
+ * 클라이언트 연결 종료 또는 취소 요청으로 토론이 중단되었음을 알립니다.
+ * 중단 전까지 생성된 메시지는 저장되어 있으며, 대화방의 토론 상태는 CANCELLED로 기록됩니다.
+ */
+public class DebateCancelledException extends RuntimeException {
+
+    public DebateCancelledException(String reason) {
+        super("토론이 취소되었습니다: " + reason);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ChatRequestDTO;
+import com.example.demo.dto.ChatResponseDTO;
+import com.example.demo.dto.DebateEventDTO;
+import com.example.demo.dto.DebateJobDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 토론을 백그라운드 작업으로 실행하고 진행 상황을 조회할 수 있게 합니다.
+ * 요청 스레드는 작업 ID만 반환하고 즉시 해제되며, 라운드 루프는 debateExecutor에서 실행됩니다.
+ * 취소 요청 시 진행 중인 LLM/검색 호출을 중단하고 CANCELLED 상태로 끝냅니다.
+ */
+@Service
+public class DebateJobService {
+    private final ChatService chatService;
+    private final Executor debateExecutor;
+    private final Map<String, DebateJob> jobs = new ConcurrentHashMap<>();
+
+    // 완료된 작업 결과를 보관하는 시간 (밀리초)
+    @Value("${chat.jobs.retention-ms:3600000}")
+    private long retentionMs;
+
+    public DebateJobService(ChatService chatService, @Qualifier("debateExecutor") Executor debateExecutor) {
+        this.chatService = chatService;
+        this.debateExecutor = debateExecutor;
+    }
+
+    public String submit(ChatRequestDTO requestDTO) {
+        purgeExpired();
+
+        DebateJob job = new DebateJob(UUID.randomUUID().toString(), requestDTO.getUserId(), requestDTO.getChatRoomId());
+        jobs.put(job.id, job);
+        try {
+            debateExecutor.execute(() -> run(job, requestDTO));
+        } catch (RuntimeException e) {
+            // 실행 큐가 가득 찬 경우 작업을 등록하지 않음
+            jobs.remove(job.id);
+            throw e;
+        }
+        return job.id;
+    }
+
+    public Optional<DebateJobDTO> getJob(String jobId, Long userId) {
+        DebateJob job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job.toDTO());
+    }
+
+    // 대기 중이면 실행하지 않고, 실행 중이면 진행 중인 호출을 중단 (이미 끝난 작업은 그대로)
+    public Optional<DebateJobDTO> cancel(String jobId, Long userId) {
+        DebateJob job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            return Optional.empty();
+        }
+        job.cancellation.cancel("cancel requested");
+        job.cancelIfQueued();
+        return Optional.of(job.toDTO());
+    }
+
+    private void run(DebateJob job, ChatRequestDTO requestDTO) {
+        if (!job.start()) {
+            return;
+        }
+        try {
+            ChatResponseDTO response = chatService.askQuestion(requestDTO, job::onEvent, job.cancellation);
+            job.complete(response);
+        } catch (DebateCancelledException e) {
+            job.cancelled();
+        } catch (Exception e) {
+            job.fail(e.getMessage());
+        }
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(job -> job.isExpired(now, retentionMs));
+    }
+
+    private static class DebateJob {
+        private final String id;
+        private final Long userId;
+        private final long createdAt = System.currentTimeMillis();
+        private final Map<String, Integer> completedRoles = new HashMap<>();
+        private final DebateCancellation cancellation = new DebateCancellation();
+        private String status = "QUEUED";
+        private Long chatRoomId;
+        private int currentRound;
+        private ChatResponseDTO result;
+        private String error;
+        private long updatedAt = createdAt;
+
+        DebateJob(String id, Long userId, Long chatRoomId) {
+            this.id = id;
+            this.userId = userId;
+            this.chatRoomId = chatRoomId;
+        }
+
+        // 실행 전에 취소된 작업이면 false
+        synchronized boolean start() {
+            if (!"QUEUED".equals(status)) {
+                return false;
+            }
+            status = "RUNNING";
+            updatedAt = System.currentTimeMillis();
+            return true;
+        }
+
+        synchronized void cancelIfQueued() {
+            if ("QUEUED".equals(status)) {
+                cancelled();
+            }
+        }
+
+        synchronized void cancelled() {
+            status = "CANCELLED";
+            updatedAt = System.currentTimeMillis();
+        }
+
+        // 전문가 응답은 여러 스레드에서 동시에 전달됨
+        synchronized void onEvent(DebateEventDTO event) {
+            if (event.getChatRoomId() != null) {
+                chatRoomId = event.getChatRoomId();
+            }
+            if (event.getRound() != null) {
+                currentRound = Math.max(currentRound, event.getRound());
+            }
+            if (event.getRole() != null) {
+                completedRoles.merge(event.getRole(), 1, Integer::sum);
+            }
+            updatedAt = System.currentTimeMillis();
+        }
+
+        synchronized void complete(ChatResponseDTO response) {
+            status = "COMPLETED";
+            result = response;
+            updatedAt = System.currentTimeMillis();
+        }
+
+        synchronized void fail(String message) {
+            status = "FAILED";
+            error = message;
+            updatedAt = System.currentTimeMillis();
+        }
+
+        synchronized boolean isExpired(long now, long retentionMs) {
+            boolean finished = "COMPLETED".equals(status) || "FAILED".equals(status) || "CANCELLED".equals(status);
+            return finished && now - updatedAt > retentionMs;
+        }
+
+        synchronized DebateJobDTO toDTO() {
+            return new DebateJobDTO(id, status, chatRoomId, currentRound, new HashMap<>(completedRoles), result, error,
+                    Instant.ofEpochMilli(createdAt).toString(), Instant.ofEpochMilli(updatedAt).toString());
+        }
+    }
+}
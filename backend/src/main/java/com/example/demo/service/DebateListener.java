@@ -0,0 +1,14 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DebateEventDTO;
+
+/**
+ * 토론 진행 중 생성되는 메시지를 실시간으로 전달받는 리스너.
+ * 전문가 응답은 gptExecutor 스레드에서 호출되므로 구현체는 스레드 안전해야 합니다.
+ */
+@FunctionalInterface
+public interface DebateListener {
+    DebateListener NONE = event -> {};
+
+    void onEvent(DebateEventDTO event);
+}
@@ -0,0 +1,202 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 토론 오케스트레이션 메트릭 (/actuator/prometheus, /actuator/metrics).
+ * - debate.llm.latency{role,outcome}: 역할별 LLM 호출 지연 (히스토그램)
+ * - debate.llm.tokens{role,type}: 역할별 토큰 사용량 (prompt, completion, cached)
+ *   cached / prompt 비율이 시스템 프롬프트 프리픽스의 프로바이더 캐시 적중률
+ * - debate.llm.cache.hits{role} / debate.llm.cache.misses{role}: 응답 캐시 적중으로 생략된 호출 수와 캐시에 없어 프로바이더로 보낸 호출 수
+ * - debate.moderator.parse.failures: 사회자 응답 파싱 실패 수
+ * - debate.moderator.decisions{source}: 라운드 결정 주체 (llm: LLM 사회자 호출, rules: 로컬 규칙으로 호출 생략)
+ * - debate.rounds / debate.completed{termination}: 토론당 라운드 수와 종료 사유 (moderator: 조기 종료, max_rounds: 최대 라운드 도달, cancelled: 연결 종료/취소 요청)
+ * - debate.expert.timeouts{role}: 전문가 응답 시간 초과 수
+ * - debate.expert.late.merged: 라운드 완료 조건 충족 후 도착해 다음 라운드 전에 합쳐진 전문가 응답 수
+ * - debate.expert.speculation{role,result} / debate.expert.speculation.wasted.tokens{role}: 사회자 호출과 동시에 미리 실행한 전문가 요청
+ *   (accepted: 사회자 요청과 호환되어 사용, discarded: 취소 또는 버림)와 버려진 요청의 토큰 수
+ * - debate.expert.hedges{role,result}: 헤지 요청 (fired: 전송, won: 헤지 응답이 먼저 도착, denied: 예산 부족으로 생략)
+ * - debate.batch.questions{outcome}: 배치 토론에서 처리한 질문 수 (completed, failed)
+ * - google.search.latency{outcome} / google.search.results: 검색 API 호출 지연과 결과 수
+ * - debate.llm.ratelimit.wait{role} / debate.llm.ratelimited{role}: 속도 제한 대기 시간과 프로바이더 429 응답 수
+ * - debate.llm.scheduler.wait{bucket,role}: 공정 스케줄러에서 슬롯을 받기까지 기다린 시간 (bucket은 회원 ID의 해시 버킷)
+ *   (버킷별 대기 작업 수 debate.llm.scheduler.queued{bucket,lane}, 활성 회원 수, 실행 중인 작업 수 게이지는 FairLlmScheduler에서 등록)
+ *   (대기 중인 호출 수와 현재 한도 비율 게이지는 LlmRateLimiter에서 등록)
+ * 실행기 active/queue 지표는 Spring Boot가 executor.*{name=gptExecutor} 로 자동 등록하며, 거부된 작업 수는 ExecutorConfig에서 기록합니다.
+ */
+@Component
+public class DebateMetrics {
+    private final MeterRegistry registry;
+
+    public DebateMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordLlmCall(String role, long startNanos, boolean success) {
+        Timer.builder("debate.llm.latency")
+                .description("역할별 LLM 호출 지연")
+                .tag("role", role)
+                .tag("outcome", success ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTokens(String role, Long promptTokens, Long totalTokens, long cachedTokens) {
+        if (promptTokens != null) {
+            tokens(role, "prompt").increment(promptTokens);
+            tokens(role, "cached").increment(cachedTokens);
+            if (totalTokens != null) {
+                tokens(role, "completion").increment(Math.max(0, totalTokens - promptTokens));
+            }
+        } else if (totalTokens != null) {
+            tokens(role, "total").increment(totalTokens);
+        }
+    }
+
+    public void recordCacheHit(String role) {
+        Counter.builder("debate.llm.cache.hits")
+                .description("응답 캐시 적중으로 생략된 LLM 호출 수")
+                .tag("role", role)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordCacheMiss(String role) {
+        Counter.builder("debate.llm.cache.misses")
+                .description("응답 캐시에 없어 프로바이더로 보낸 LLM 호출 수")
+                .tag("role", role)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordModeratorParseFailure() {
+        Counter.builder("debate.moderator.parse.failures")
+                .description("사회자 응답 JSON 파싱 실패 수")
+                .register(registry)
+                .increment();
+    }
+
+    public void recordModeratorDecision(String source) {
+        Counter.builder("debate.moderator.decisions")
+                .description("결정 주체별 사회자 결정 수 (rules: LLM 사회자 호출 생략)")
+                .tag("source", source)
+                .register(registry)
+                .increment();
+    }
+
+    // termination: moderator(사회자가 종료), max_rounds(최대 라운드 도달), cancelled(연결 종료/취소 요청)
+    public void recordDebateFinished(int rounds, String termination) {
+        DistributionSummary.builder("debate.rounds")
+                .description("토론당 진행된 라운드 수")
+                .register(registry)
+                .record(rounds);
+        Counter.builder("debate.completed")
+                .description("종료 사유별 완료된 토론 수")
+                .tag("termination", termination)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordExpertTimeout(String role) {
+        Counter.builder("debate.expert.timeouts")
+                .description("전문가 응답 시간 초과 수")
+                .tag("role", role)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordLateAnswersMerged(int count) {
+        Counter.builder("debate.expert.late.merged")
+                .description("라운드 진행 후 늦게 도착해 히스토리에 합쳐진 전문가 응답 수")
+                .register(registry)
+                .increment(count);
+    }
+
+    public void recordSpeculation(String role, String result, long wastedTokens) {
+        Counter.builder("debate.expert.speculation")
+                .description("추측 실행한 전문가 요청 수 (accepted: 사용, discarded: 버림)")
+                .tag("role", role)
+                .tag("result", result)
+                .register(registry)
+                .increment();
+        if (wastedTokens > 0) {
+            Counter.builder("debate.expert.speculation.wasted.tokens")
+                    .description("버려진 추측 실행 요청의 토큰 수 (진행 중에 취소한 요청은 프롬프트 추정치)")
+                    .tag("role", role)
+                    .register(registry)
+                    .increment(wastedTokens);
+        }
+    }
+
+    public void recordBatchQuestion(String outcome) {
+        Counter.builder("debate.batch.questions")
+                .description("배치 토론에서 처리한 질문 수")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordHedge(String role, String result) {
+        Counter.builder("debate.expert.hedges")
+                .description("전문가 헤지 요청 수")
+                .tag("role", role)
+                .tag("result", result)
+                .register(registry)
+                .increment();
+    }
+
+    // outcome: success, empty(오류 응답 포함 결과 없음), timeout, cancelled
+    public void recordSearch(long startNanos, String outcome, int resultCount) {
+        Timer.builder("google.search.latency")
+                .description("Google Custom Search API 호출 지연")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("google.search.results")
+                .description("검색 API 호출당 결과 수")
+                .register(registry)
+                .record(resultCount);
+    }
+
+    public void recordRateLimitWait(String role, long waitNanos) {
+        Timer.builder("debate.llm.ratelimit.wait")
+                .description("역할별 속도 제한 허가 대기 시간")
+                .tag("role", role)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSchedulerWait(String bucket, String role, long waitNanos) {
+        Timer.builder("debate.llm.scheduler.wait")
+                .description("회원 해시 버킷별 공정 스케줄러 슬롯 대기 시간")
+                .tag("bucket", bucket)
+                .tag("role", role)
+                .register(registry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordProviderRateLimited(String role) {
+        Counter.builder("debate.llm.ratelimited")
+                .description("프로바이더가 요청 한도 초과(429)로 거절한 호출 수")
+                .tag("role", role)
+                .register(registry)
+                .increment();
+    }
+
+    private Counter tokens(String role, String type) {
+        return Counter.builder("debate.llm.tokens")
+                .description("역할별 LLM 토큰 사용량")
+                .tag("role", role)
+                .tag("type", type)
+                .register(registry);
+    }
+}
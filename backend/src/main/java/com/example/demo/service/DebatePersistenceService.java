@@ -0,0 +1,135 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ChatRequestDTO;
+import com.example.demo.entity.ChatEntity;
+import com.example.demo.entity.ChatRoom;
+import com.example.demo.entity.Member;
+import com.example.demo.repository.ChatRepository;
+import com.example.demo.repository.ChatRoomRepository;
+import com.example.demo.repository.MemberRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 토론 중 발생하는 DB 쓰기를 짧은 트랜잭션으로 나누어 처리합니다.
+ * LLM 응답을 기다리는 동안에는 커넥션이나 영속성 컨텍스트를 잡고 있지 않으며,
+ * 라운드마다 커밋되므로 진행 중인 토론도 히스토리 조회에 바로 반영됩니다.
+ */
+@Service
+public class DebatePersistenceService {
+    private final ChatRepository chatRepository;
+    private final ChatRoomRepository chatRoomRepository;
+    private final MemberRepository memberRepository;
+
+    public DebatePersistenceService(ChatRepository chatRepository, ChatRoomRepository chatRoomRepository,
+                                    MemberRepository memberRepository) {
+        this.chatRepository = chatRepository;
+        this.chatRoomRepository = chatRoomRepository;
+        this.memberRepository = memberRepository;
+    }
+
+    // 대화방 조회 또는 생성, 사용자 입력 저장 후 히스토리 반환
+    @Transactional
+    public DebateSession startDebate(ChatRequestDTO requestDTO) {
+        Member member = memberRepository.findById(requestDTO.getUserId())
+                .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
+
+        final ChatRoom chatRoom;
+        if (requestDTO.getChatRoomId() != null) {
+            chatRoom = chatRoomRepository.findByIdAndMember(requestDTO.getChatRoomId(), member)
+                    .orElseThrow(() -> new RuntimeException("대화방을 찾을 수 없거나 접근 권한이 없습니다."));
+        } else {
+            // 새 대화방 생성
+            String title = requestDTO.getQuestion().length() > 50
+                    ? requestDTO.getQuestion().substring(0, 50) + "..."
+                    : requestDTO.getQuestion();
+            ChatRoom newChatRoom = ChatRoom.builder()
+                    .member(member)
+                    .title(title)
+                    .build();
+            chatRoom = chatRoomRepository.save(newChatRoom);
+        }
+        chatRoom.setDebateStatus("RUNNING");
+
+        // 사용자 입력 저장
+        ChatEntity userMessage = ChatEntity.builder()
+                .chatRoom(chatRoom)
+                .message(requestDTO.getQuestion())
+                .sender("user")
+                .timestamp(Instant.now().toString())
+                .build();
+        chatRepository.save(userMessage);
+
+        List<ChatEntity> history = chatRepository.findByChatRoomOrderByTimestampAsc(chatRoom);
+        return new DebateSession(chatRoom.getId(), chatRoom.getNote(), chatRoom.getSummarizedUntilChatId(), new ArrayList<>(history));
+    }
+
+    // 기존 대화방의 노트와 히스토리 조회 (접근 권한 확인 포함)
+    @Transactional(readOnly = true)
+    public DebateSession loadSession(Long chatRoomId, Long userId) {
+        Member member = memberRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
+
+        ChatRoom chatRoom = chatRoomRepository.findByIdAndMember(chatRoomId, member)
+                .orElseThrow(() -> new RuntimeException("대화방을 찾을 수 없거나 접근 권한이 없습니다."));
+
+        List<ChatEntity> history = chatRepository.findByChatRoomOrderByTimestampAsc(chatRoom);
+        return new DebateSession(chatRoom.getId(), chatRoom.getNote(), chatRoom.getSummarizedUntilChatId(), new ArrayList<>(history));
+    }
+
+    // 메시지 저장과 역할별 참여 횟수/토큰 사용량 통계 반영을 하나의 짧은 트랜잭션으로 처리
+    @Transactional
+    public void saveMessages(Long chatRoomId, List<ChatEntity> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
+                .orElseThrow(() -> new RuntimeException("대화방을 찾을 수 없습니다."));
+
+        for (ChatEntity chat : messages) {
+            chat.setChatRoom(chatRoom);
+            if (chat.getSender() != null && !chat.getSender().equals("user")) {
+                chatRoom.incrementRoleParticipation(chat.getSender());
+            }
+            if (chat.getTokensUsed() != null && chat.getTokensUsed() > 0) {
+                chatRoom.addTokensUsed(chat.getTokensUsed());
+            }
+        }
+        chatRepository.saveAll(messages);
+    }
+
+    // 요약으로 노트를 갱신할 때 노트에 반영된 마지막 메시지 ID도 함께 저장 (null이면 다음 요약은 전체 대화 대상)
+    @Transactional
+    public void updateNote(Long chatRoomId, String note, Long summarizedUntilChatId) {
+        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
+                .orElseThrow(() -> new RuntimeException("대화방을 찾을 수 없습니다."));
+        chatRoom.setNote(note);
+        chatRoom.setSummarizedUntilChatId(summarizedUntilChatId);
+        // 대화방 업데이트 시간 갱신
+        chatRoomRepository.save(chatRoom);
+    }
+
+    // 토론 종료 상태 기록 (COMPLETED, CANCELLED, FAILED)
+    @Transactional
+    public void finishDebate(Long chatRoomId, String status) {
+        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
+                .orElseThrow(() -> new RuntimeException("대화방을 찾을 수 없습니다."));
+        chatRoom.setDebateStatus(status);
+        chatRoomRepository.save(chatRoom);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class DebateSession {
+        private final Long chatRoomId;
+        private final String note;
+        private final Long summarizedUntilChatId;
+        private final List<ChatEntity> history;
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ExecutorConfig;
+import com.example.demo.entity.ChatEntity;
+import com.example.demo.tracing.DebateTracer;
+import com.example.demo.tracing.Span;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 전문가 호출 실행기.
+ * - 역할별 최근 응답 시간 창(latency-window)에서 p99를 구해 시간 초과를 정함 (표본이 부족하면 기본값)
+ *   시간 초과된 호출은 시간 초과 값을 표본으로 넣어, 느려지는 동안 시간 초과와 헤지 지연이 함께 늘어나도록 함
+ * - 응답이 p95를 넘도록 오지 않으면 같은 요청을 한 번 더 보내고(헤지) 먼저 끝난 응답을 사용
+ * - 헤지는 일반 호출 수 대비 budget-ratio 비율까지만 허용하여 추가 토큰 사용량을 제한
+ * 응답을 받으면 남은 시도는 실행 스레드를 인터럽트하여 취소합니다. (이미 프로바이더로 나간 요청의 토큰은 과금될 수 있음)
+ * 시도는 FairLlmScheduler를 거쳐 회원별 공정 순서로 gptExecutor에서 실행됩니다.
+ * 시간 초과, 헤지 지연, 응답 시간 표본은 스케줄러 대기 시간을 빼고 시도가 실행을 시작한 시점부터 잽니다.
+ */
+@Slf4j
+@Component
+public class ExpertInvoker {
+
+    private final GptService gptService;
+    private final FairLlmScheduler scheduler;
+    private final DebateMetrics debateMetrics;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    // 시간 초과와 헤지 타이머
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "expert-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object hedgeBudgetLock = new Object();
+    private double hedgeCredits;
+
+    @Value("${chat.expert.latency-window:200}")
+    private int latencyWindow;
+
+    // 이 수 이상의 표본이 모여야 시간 초과와 헤지 지연을 응답 시간 분포로 계산
+    @Value("${chat.expert.min-samples:20}")
+    private int minSamples;
+
+    @Value("${chat.expert.timeout.default-ms:45000}")
+    private long defaultTimeoutMs;
+
+    @Value("${chat.expert.timeout.min-ms:10000}")
+    private long minTimeoutMs;
+
+    @Value("${chat.expert.timeout.max-ms:45000}")
+    private long maxTimeoutMs;
+
+    // 시간 초과 = p99 × multiplier (min-ms ~ max-ms)
+    @Value("${chat.expert.timeout.p99-multiplier:2.0}")
+    private double timeoutMultiplier;
+
+    @Value("${chat.expert.hedge.enabled:true}")
+    private boolean hedgeEnabled;
+
+    @Value("${chat.expert.hedge.percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${chat.expert.hedge.min-delay-ms:1000}")
+    private long hedgeMinDelayMs;
+
+    // 일반 호출 1건마다 적립되는 헤지 허용량과 최대 적립량
+    @Value("${chat.expert.hedge.budget-ratio:0.1}")
+    private double hedgeBudgetRatio;
+
+    @Value("${chat.expert.hedge.budget-burst:5}")
+    private double hedgeBudgetBurst;
+
+    public ExpertInvoker(GptService gptService, FairLlmScheduler scheduler, DebateMetrics debateMetrics) {
+        this.gptService = gptService;
+        this.scheduler = scheduler;
+        this.debateMetrics = debateMetrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * 전문가 요청을 공정 스케줄러를 거쳐 gptExecutor에서 실행합니다.
+     * messages는 작업 스레드에서 시도마다 호출되므로 검색 등 프롬프트 준비도 시간 초과와 헤지 대상에 포함됩니다.
+     * 역할별 시간 초과가 지나면 TimeoutException으로 완료되며, 모든 시도가 실패하면 마지막 오류 응답으로 완료됩니다.
+     */
+    public CompletableFuture<ChatEntity> invoke(String role, Supplier<List<Map<String, String>>> messages) {
+        long timeoutMs = timeoutMs(role);
+        long hedgeDelayMs = hedgeDelayMs(role);
+        DebateTracer.currentSpan()
+                .setAttribute("timeoutMs", timeoutMs)
+                .setAttribute("hedgeDelayMs", hedgeDelayMs >= 0 ? hedgeDelayMs : null);
+
+        Call call = new Call(role, messages, timeoutMs);
+        if (hedgeDelayMs >= 0) {
+            // 타이머 스레드에서 제출하더라도 현재 토론의 MDC와 스팬이 이어지도록 미리 감쌈
+            TaskDecorator decorator = ExecutorConfig.contextPropagatingDecorator();
+            call.hedgeDelayMs = hedgeDelayMs;
+            call.hedgeTask = decorator.decorate(() -> {
+                if (call.result.isDone()) {
+                    return;
+                }
+                if (!spendHedgeCredit()) {
+                    debateMetrics.recordHedge(role, "denied");
+                    return;
+                }
+                log.debug("전문가 응답이 {}ms 동안 없어 헤지 요청을 보냅니다: {}", hedgeDelayMs, role);
+                debateMetrics.recordHedge(role, "fired");
+                DebateTracer.currentSpan().setAttribute("hedged", true);
+                call.launch(true);
+            });
+        }
+        // 스케줄러 대기열에서 시간 초과만큼 시작하지 못한 경우에도 끝나도록 제출 시점에 한 번 걸어 둠 (시작하면 다시 계산)
+        call.schedule(() -> call.result.completeExceptionally(new TimeoutException()), timeoutMs);
+        earnHedgeCredit();
+        call.launch(false);
+
+        // 시간 초과 시 진행 중인 모든 시도를 취소
+        // 실행 중에 시간 초과된 호출은 시간 초과 값으로 기록하여, 프로바이더가 느려질 때 p95/p99가 낮게 치우치지 않도록 함
+        call.result.whenComplete((answer, ex) -> {
+            call.cancelTimers();
+            if (ex != null) {
+                if (ex instanceof TimeoutException && call.started.get()) {
+                    window(role).record(timeoutMs);
+                }
+                call.cancelAttempts(null);
+            }
+        });
+        return call.result;
+    }
+
+    // 역할별 시간 초과 (표본이 부족하면 기본값)
+    long timeoutMs(String role) {
+        OptionalLong p99 = window(role).percentile(0.99, minSamples);
+        if (p99.isEmpty()) {
+            return defaultTimeoutMs;
+        }
+        long derived = (long) (p99.getAsLong() * timeoutMultiplier);
+        return Math.max(minTimeoutMs, Math.min(maxTimeoutMs, derived));
+    }
+
+    // 헤지 요청을 보낼 때까지 기다리는 시간 (-1이면 헤지하지 않음)
+    long hedgeDelayMs(String role) {
+        if (!hedgeEnabled) {
+            return -1;
+        }
+        OptionalLong percentile = window(role).percentile(hedgePercentile, minSamples);
+        return percentile.isPresent() ? Math.max(hedgeMinDelayMs, percentile.getAsLong()) : -1;
+    }
+
+    private LatencyWindow window(String role) {
+        return latencies.computeIfAbsent(role, key -> new LatencyWindow(latencyWindow));
+    }
+
+    private void earnHedgeCredit() {
+        synchronized (hedgeBudgetLock) {
+            hedgeCredits = Math.min(hedgeBudgetBurst, hedgeCredits + hedgeBudgetRatio);
+        }
+    }
+
+    private boolean spendHedgeCredit() {
+        synchronized (hedgeBudgetLock) {
+            if (hedgeCredits < 1) {
+                return false;
+            }
+            hedgeCredits -= 1;
+            return true;
+        }
+    }
+
+    private static boolean isError(ChatEntity answer) {
+        return answer == null || (answer.getMessage() != null && answer.getMessage().startsWith("오류:"));
+    }
+
+    // 한 전문가 요청의 시도(일반 + 헤지)와 최종 결과
+    private final class Call {
+        private final String role;
+        private final Supplier<List<Map<String, String>>> messages;
+        private final long timeoutMs;
+        private final CompletableFuture<ChatEntity> result = new CompletableFuture<>();
+        private final List<Future<?>> attempts = new CopyOnWriteArrayList<>();
+        private final List<ScheduledFuture<?>> timers = new CopyOnWriteArrayList<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean started = new AtomicBoolean();
+        private Runnable hedgeTask;
+        private long hedgeDelayMs = -1;
+
+        Call(String role, Supplier<List<Map<String, String>>> messages, long timeoutMs) {
+            this.role = role;
+            this.messages = messages;
+            this.timeoutMs = timeoutMs;
+        }
+
+        // 첫 시도가 실행을 시작하면 대기열 시간을 빼고 시간 초과와 헤지 타이머를 다시 걺
+        private void onStarted() {
+            if (!started.compareAndSet(false, true) || result.isDone()) {
+                return;
+            }
+            cancelTimers();
+            schedule(() -> result.completeExceptionally(new TimeoutException()), timeoutMs);
+            if (hedgeTask != null) {
+                schedule(hedgeTask, hedgeDelayMs);
+            }
+        }
+
+        void schedule(Runnable action, long delayMs) {
+            timers.add(timer.schedule(action, delayMs, TimeUnit.MILLISECONDS));
+        }
+
+        void cancelTimers() {
+            for (ScheduledFuture<?> scheduled : timers) {
+                scheduled.cancel(false);
+            }
+            timers.clear();
+        }
+
+        // 일반 시도의 거부(회원별 대기열 초과)는 기존과 같이 호출자에게 전달하고, 헤지 시도의 거부는 무시
+        void launch(boolean hedge) {
+            AtomicReference<Future<?>> self = new AtomicReference<>();
+            FutureTask<Void> task = new FutureTask<>(() -> run(hedge, self.get()), null);
+            self.set(task);
+            pending.incrementAndGet();
+            attempts.add(task);
+            try {
+                scheduler.execute(role, task);
+            } catch (RejectedExecutionException e) {
+                attempts.remove(task);
+                pending.decrementAndGet();
+                if (!hedge) {
+                    throw e;
+                }
+                log.debug("실행기 대기열이 가득 차 헤지 요청을 보내지 않습니다: {}", role);
+            }
+        }
+
+        private void run(boolean hedge, Future<?> self) {
+            long startNanos = System.nanoTime();
+            if (!hedge) {
+                onStarted();
+            }
+            ChatEntity answer = null;
+            RuntimeException failure = null;
+            try {
+                answer = gptService.requestGpt(messages.get(), role);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            int remaining = pending.decrementAndGet();
+            if (self.isCancelled()) {
+                // 다른 시도가 먼저 끝나 취소된 경우
+                return;
+            }
+            if (failure == null && !isError(answer)) {
+                if (result.complete(answer)) {
+                    window(role).record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                    if (hedge) {
+                        debateMetrics.recordHedge(role, "won");
+                    }
+                    cancelAttempts(self);
+                }
+            } else if (remaining == 0 && !result.isDone()) {
+                // 모든 시도가 실패하면 마지막 결과로 완료 (오류 응답은 기존과 같이 그대로 전달)
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else {
+                    result.complete(answer);
+                }
+            }
+        }
+
+        // winner를 제외한 진행 중인 시도를 인터럽트하여 취소
+        void cancelAttempts(Future<?> winner) {
+            for (Future<?> attempt : attempts) {
+                if (attempt != winner) {
+                    attempt.cancel(true);
+                }
+            }
+        }
+    }
+
+    // 역할별 최근 응답 시간(ms)을 고정 크기 링 버퍼로 보관
+    static final class LatencyWindow {
+        private final long[] samples;
+        private int count;
+        private int next;
+
+        LatencyWindow(int size) {
+            this.samples = new long[Math.max(1, size)];
+        }
+
+        synchronized void record(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized OptionalLong percentile(double p, int minSamples) {
+            if (count == 0 || count < minSamples) {
+                return OptionalLong.empty();
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(p * count) - 1;
+            return OptionalLong.of(sorted[Math.max(0, Math.min(count - 1, index))]);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ExecutorConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * 회원별 공정 LLM 작업 스케줄러 (gptExecutor 앞단).
+ * - 회원(MDC memberId)마다 대기열을 두고 가중치 공정 큐잉(WFQ)으로 다음 작업을 고름: 처리한 작업 수 / 가중치가 가장 작은 회원 먼저
+ * - 사회자/요약 호출은 토론 전체를 막고 있으므로 전문가 호출보다 먼저 슬롯을 받음 (사회자 > 요약 > 전문가)
+ * - 전문가 호출은 회원당 대기 수(max-queued-per-member)를 제한하고, max-in-flight-per-member를 지정하면 동시 실행 수도 제한
+ *   (동시 실행 제한은 다른 회원의 작업이 기다릴 때만 적용하므로 한가할 때는 한 회원이 모든 역할을 한꺼번에 실행)
+ * - 배치 레인(MDC lane=batch)의 작업은 같은 회원이라도 별도 흐름으로 batch-weight 가중치를 받고,
+ *   LlmRateLimiter와 같이 사회자/요약 호출을 포함한 모든 대화형 작업 뒤에 처리
+ * 한 회원이 라운드를 많이 요청해도 gptExecutor 대기열을 독점하지 못하며, 대기열 초과는 그 회원의 요청만 거부됩니다.
+ * 전체 동시 실행 수(max-in-flight)는 기본적으로 LLM 동시 호출 한도(chat.llm.max-concurrent-calls)와 gptExecutor 용량 중
+ * 작은 값이므로 기존 처리량을 줄이지 않습니다.
+ * 지표는 회원 ID 대신 해시 버킷(metric-buckets) 단위로 기록하여 시계열 수를 제한하고, 쉬고 있는 회원의 흐름은 제거합니다.
+ */
+@Slf4j
+@Component
+public class FairLlmScheduler {
+    // 작업을 제출한 회원 MDC 키 (ChatService가 토론 시작 시 설정하며 gptExecutor 작업에도 전파됨)
+    public static final String MDC_MEMBER_ID = "memberId";
+    private static final Map<String, Integer> ROLE_PRIORITY = Map.of("moderator", 0, "summarizer", 1);
+    private static final int EXPERT_PRIORITY = 2;
+
+    private static final String INTERACTIVE_LANE = "interactive";
+
+    private final Executor gptExecutor;
+    private final DebateMetrics debateMetrics;
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final int maxInFlightPerMember;
+    private final int maxQueuedPerMember;
+    private final double batchWeight;
+    private final int metricBuckets;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition granted = lock.newCondition();
+    // 대기 중이거나 실행 중인 작업이 있는 회원의 흐름 (쉬는 흐름은 dispatch에서 제거)
+    private final Map<String, Flow> flows = new HashMap<>();
+    private long sequence;
+    private int inFlight;
+    // 마지막으로 슬롯을 받은 흐름의 가상 시간. 쉬다가 돌아온 회원이 밀린 몫을 한꺼번에 가져가지 않도록 기준으로 사용
+    private double virtualTime;
+
+    public FairLlmScheduler(@Qualifier("gptExecutor") Executor gptExecutor, DebateMetrics debateMetrics,
+                            MeterRegistry meterRegistry,
+                            @Value("${chat.scheduler.enabled:true}") boolean enabled,
+                            @Value("${chat.scheduler.max-in-flight:0}") int maxInFlight,
+                            @Value("${chat.llm.max-concurrent-calls:64}") int maxConcurrentCalls,
+                            @Value("${chat.scheduler.max-in-flight-per-member:0}") int maxInFlightPerMember,
+                            @Value("${chat.scheduler.max-queued-per-member:50}") int maxQueuedPerMember,
+                            @Value("${chat.scheduler.batch-weight:0.25}") double batchWeight,
+                            @Value("${chat.scheduler.metric-buckets:16}") int metricBuckets) {
+        this.gptExecutor = gptExecutor;
+        this.debateMetrics = debateMetrics;
+        this.enabled = enabled;
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : defaultMaxInFlight(gptExecutor, maxConcurrentCalls);
+        this.maxInFlightPerMember = maxInFlightPerMember;
+        this.maxQueuedPerMember = maxQueuedPerMember;
+        this.batchWeight = batchWeight > 0 ? batchWeight : 1.0;
+        this.metricBuckets = Math.max(1, metricBuckets);
+
+        Gauge.builder("debate.llm.scheduler.in.flight", this, scheduler -> scheduler.locked(() -> scheduler.inFlight))
+                .description("공정 스케줄러에서 슬롯을 받아 실행 중인 LLM 작업 수")
+                .register(meterRegistry);
+        Gauge.builder("debate.llm.scheduler.members", this, FairLlmScheduler::activeFlows)
+                .description("대기 중이거나 실행 중인 작업이 있는 회원(레인) 흐름 수")
+                .register(meterRegistry);
+        Gauge.builder("debate.llm.scheduler.queued.max", this, scheduler -> scheduler.locked(scheduler::maxQueued))
+                .description("가장 많이 대기 중인 회원 한 명의 대기 작업 수")
+                .register(meterRegistry);
+        // 회원별 대기 작업 수는 해시 버킷 단위로 합산 (버킷 수 × 레인 수로 시계열 고정, 회원 ID는 노출하지 않음)
+        for (String lane : List.of(INTERACTIVE_LANE, LlmRateLimiter.BATCH_LANE)) {
+            for (int bucket = 0; bucket < this.metricBuckets; bucket++) {
+                int b = bucket;
+                Gauge.builder("debate.llm.scheduler.queued", this, scheduler -> scheduler.locked(() -> scheduler.queued(lane, b)))
+                        .description("회원 해시 버킷별 공정 스케줄러 대기 작업 수")
+                        .tag("bucket", String.valueOf(bucket))
+                        .tag("lane", lane)
+                        .register(meterRegistry);
+            }
+        }
+        log.info("LLM 공정 스케줄러: {} (동시 {}, 회원당 {})", enabled ? "사용" : "사용 안 함",
+                this.maxInFlight, this.maxInFlightPerMember > 0 ? this.maxInFlightPerMember : "제한 없음");
+    }
+
+    /**
+     * 전문가 작업을 현재 회원의 대기열에 넣고, 차례가 되면 gptExecutor에서 실행합니다.
+     * 회원의 대기열이 가득 차면 RejectedExecutionException을 던집니다. (기존 실행기 대기열 초과와 같은 처리)
+     * 대기 중에 취소된 Future 작업은 실행하지 않고 버립니다.
+     */
+    public void execute(String role, Runnable task) {
+        if (!enabled) {
+            gptExecutor.execute(task);
+            return;
+        }
+        // 슬롯을 받는 스레드는 다른 회원의 작업을 끝낸 스레드일 수 있으므로 제출 시점의 MDC와 스팬을 미리 감쌈
+        Runnable decorated = ExecutorConfig.contextPropagatingDecorator().decorate(task);
+        List<Ticket> ready;
+        lock.lock();
+        try {
+            Flow flow = currentFlow();
+            if (maxQueuedPerMember > 0 && flow.queue.size() >= maxQueuedPerMember) {
+                throw new RejectedExecutionException("회원별 LLM 대기열이 가득 찼습니다: " + flow.key);
+            }
+            enqueue(new Ticket(flow, role, priority(role, flow), sequence++, System.nanoTime(), task, decorated));
+            ready = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        run(ready);
+    }
+
+    /**
+     * 토론 스레드에서 직접 호출하는 사회자/요약 요청의 슬롯을 받습니다. 반환된 Slot을 닫으면 슬롯을 돌려줍니다.
+     * 기다리는 중 인터럽트(토론 취소)되면 인터럽트 상태를 유지한 채 빈 슬롯을 반환하며, 이어지는 LLM 호출이 취소로 끝납니다.
+     */
+    public Slot acquire(String role) {
+        if (!enabled) {
+            return Slot.NONE;
+        }
+        Ticket ticket;
+        List<Ticket> ready;
+        lock.lock();
+        try {
+            Flow flow = currentFlow();
+            ticket = new Ticket(flow, role, priority(role, flow), sequence++, System.nanoTime(), null, null);
+            enqueue(ticket);
+            ready = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        run(ready);
+
+        lock.lock();
+        try {
+            while (!ticket.granted) {
+                granted.await();
+            }
+            return () -> release(ticket.flow);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (ticket.granted) {
+                return () -> release(ticket.flow);
+            }
+            ticket.flow.queue.remove(ticket);
+            return Slot.NONE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 기본 전체 한도: 프로바이더 동시 호출 세마포어와 같고, 고정 크기 풀이면 거부 없이 받을 수 있는 작업 수(스레드 + 대기열)로 제한
+    // 가상 스레드 실행기는 용량 제한이 없으므로 세마포어 한도만 적용
+    static int defaultMaxInFlight(Executor executor, int maxConcurrentCalls) {
+        long limit = Math.max(1, maxConcurrentCalls);
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            long capacity = (long) pool.getMaxPoolSize() + pool.getQueueCapacity();
+            limit = Math.min(limit, capacity);
+        }
+        return (int) limit;
+    }
+
+    // 회원 ID의 해시 버킷. 지표에는 이 값만 남김
+    int bucketOf(String member) {
+        return Math.floorMod(member.hashCode(), metricBuckets);
+    }
+
+    int activeFlows() {
+        return locked(flows::size);
+    }
+
+    private void release(Flow flow) {
+        List<Ticket> ready;
+        lock.lock();
+        try {
+            inFlight--;
+            flow.inFlight--;
+            ready = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        run(ready);
+    }
+
+    private void enqueue(Ticket ticket) {
+        Flow flow = ticket.flow;
+        // 쉬고 있던 흐름은 현재 가상 시간부터 다시 시작
+        if (flow.queue.isEmpty() && flow.inFlight == 0) {
+            flow.virtualTime = Math.max(flow.virtualTime, virtualTime);
+        }
+        flow.queue.add(ticket);
+    }
+
+    // 빈 슬롯만큼 다음 작업을 골라 슬롯을 배정 (락 안에서 호출). 실행기 작업은 락 밖에서 제출하도록 돌려줌
+    private List<Ticket> dispatch() {
+        List<Ticket> ready = new ArrayList<>();
+        while (inFlight < maxInFlight) {
+            Ticket next = selectNext();
+            if (next == null) {
+                break;
+            }
+            Flow flow = next.flow;
+            flow.queue.poll();
+            inFlight++;
+            flow.inFlight++;
+            virtualTime = Math.max(virtualTime, flow.virtualTime);
+            flow.virtualTime += 1.0 / flow.weight;
+            debateMetrics.recordSchedulerWait(String.valueOf(flow.bucket), next.role, System.nanoTime() - next.enqueuedNanos);
+            if (next.task == null) {
+                next.granted = true;
+                granted.signalAll();
+            } else {
+                ready.add(next);
+            }
+        }
+        evictIdleFlows();
+        return ready;
+    }
+
+    // 대기/실행 중인 작업이 없는 흐름 제거. 쉬던 흐름은 어차피 현재 가상 시간부터 다시 시작하므로 잃는 몫은 작업 한 건 이하
+    private void evictIdleFlows() {
+        flows.values().removeIf(flow -> flow.queue.isEmpty() && flow.inFlight == 0);
+    }
+
+    private int queued(String lane, int bucket) {
+        int queued = 0;
+        for (Flow flow : flows.values()) {
+            if (flow.lane.equals(lane) && flow.bucket == bucket) {
+                queued += flow.queue.size();
+            }
+        }
+        return queued;
+    }
+
+    private int maxQueued() {
+        int max = 0;
+        for (Flow flow : flows.values()) {
+            max = Math.max(max, flow.queue.size());
+        }
+        return max;
+    }
+
+    // 우선순위(사회자 > 요약 > 전문가)가 가장 높은 작업 중 가상 시간이 가장 작은 흐름의 작업
+    // 회원당 동시 실행 수를 넘은 흐름의 전문가 작업은 다른 흐름에 보낼 작업이 없을 때만 선택
+    private Ticket selectNext() {
+        Ticket best = null;
+        Ticket overCap = null;
+        for (Flow flow : flows.values()) {
+            Ticket head = flow.queue.peek();
+            // 대기 중에 취소된 전문가 작업은 슬롯 없이 버림
+            while (head != null && head.task instanceof Future<?> future && future.isDone()) {
+                flow.queue.poll();
+                head = flow.queue.peek();
+            }
+            if (head == null) {
+                continue;
+            }
+            if (priority(head.role) >= EXPERT_PRIORITY && maxInFlightPerMember > 0 && flow.inFlight >= maxInFlightPerMember) {
+                overCap = before(head, overCap) ? head : overCap;
+            } else if (before(head, best)) {
+                best = head;
+            }
+        }
+        return best != null ? best : overCap;
+    }
+
+    private static boolean before(Ticket ticket, Ticket other) {
+        return other == null || ticket.priority < other.priority
+                || (ticket.priority == other.priority && ticket.flow.virtualTime < other.flow.virtualTime)
+                || (ticket.priority == other.priority && ticket.flow.virtualTime == other.flow.virtualTime
+                && ticket.sequence < other.sequence);
+    }
+
+    private void run(List<Ticket> ready) {
+        for (Ticket ticket : ready) {
+            try {
+                gptExecutor.execute(() -> {
+                    try {
+                        ticket.decorated.run();
+                    } finally {
+                        release(ticket.flow);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // max-in-flight를 실행기 용량보다 크게 직접 설정한 경우. 작업을 취소하고 슬롯을 돌려줌 (호출자는 시간 초과로 완료)
+                log.warn("gptExecutor가 작업을 거부했습니다. chat.scheduler.max-in-flight 설정을 확인하세요: {}", ticket.role);
+                if (ticket.task instanceof Future<?> future) {
+                    future.cancel(false);
+                }
+                release(ticket.flow);
+            }
+        }
+    }
+
+    private Flow currentFlow() {
+        String member = MDC.get(MDC_MEMBER_ID);
+        if (member == null) {
+            member = "unknown";
+        }
+        boolean batch = LlmRateLimiter.BATCH_LANE.equals(MDC.get(LlmRateLimiter.MDC_LANE));
+        String lane = batch ? LlmRateLimiter.BATCH_LANE : INTERACTIVE_LANE;
+        int bucket = bucketOf(member);
+        return flows.computeIfAbsent(lane + ":" + member,
+                key -> new Flow(key, lane, bucket, batch ? batchWeight : 1.0));
+    }
+
+    private static int priority(String role) {
+        return ROLE_PRIORITY.getOrDefault(role, EXPERT_PRIORITY);
+    }
+
+    // 배치 레인은 같은 역할 순서를 유지한 채 모든 대화형 작업 뒤로
+    private static int priority(String role, Flow flow) {
+        int priority = priority(role);
+        return LlmRateLimiter.BATCH_LANE.equals(flow.lane) ? priority + LlmRateLimiter.BATCH_PRIORITY_OFFSET : priority;
+    }
+
+    private int locked(IntSupplier supplier) {
+        lock.lock();
+        try {
+            return supplier.getAsInt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 한 회원(레인)의 대기열과 가상 시간
+    private static final class Flow {
+        private final String key;
+        private final String lane;
+        private final int bucket;
+        private final double weight;
+        private final PriorityQueue<Ticket> queue = new PriorityQueue<>(
+                Comparator.comparingInt((Ticket ticket) -> ticket.priority).thenComparingLong(ticket -> ticket.sequence));
+        private int inFlight;
+        private double virtualTime;
+
+        Flow(String key, String lane, int bucket, double weight) {
+            this.key = key;
+            this.lane = lane;
+            this.bucket = bucket;
+            this.weight = weight;
+        }
+    }
+
+    // 대기 중인 작업 (task가 null이면 토론 스레드가 acquire에서 기다리는 사회자/요약 호출)
+    private static final class Ticket {
+        private final Flow flow;
+        private final String role;
+        private final int priority;
+        private final long sequence;
+        private final long enqueuedNanos;
+        private final Runnable task;
+        private final Runnable decorated;
+        private boolean granted;
+
+        Ticket(Flow flow, String role, int priority, long sequence, long enqueuedNanos, Runnable task, Runnable decorated) {
+            this.flow = flow;
+            this.role = role;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.enqueuedNanos = enqueuedNanos;
+            this.task = task;
+            this.decorated = decorated;
+        }
+    }
+
+    /**
+     * 사회자/요약 호출이 받은 슬롯. try-with-resources로 호출이 끝나면 돌려줍니다.
+     */
+    public interface Slot extends AutoCloseable {
+        Slot NONE = () -> {
+        };
+
+        @Override
+        void close();
+    }
+}
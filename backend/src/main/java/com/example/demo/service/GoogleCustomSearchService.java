@@ -1,17 +1,33 @@
 package com.example.demo.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.example.demo.tracing.DebateTracer;
+import com.example.demo.tracing.Span;
+import com.example.demo.util.PayloadLogSampler;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+@Slf4j
 @Service
 public class GoogleCustomSearchService {
-    private final RestTemplate restTemplate;
+    private final CloseableHttpAsyncClient searchHttpClient;
     private final ObjectMapper objectMapper;
     
     @Value("${google.custom-search.api-key:}")
@@ -27,28 +43,48 @@ public class GoogleCustomSearchService {
     private String excludedDomains;
     
     private List<String> excludedDomainsList;
+
+    // 커넥션 대기부터 응답 수신까지 한 번의 검색 호출에 허용하는 전체 시간
+    @Value("${google.custom-search.http.request-timeout-ms:8000}")
+    private long requestTimeoutMs;
+
+    private final SearchResultCache searchResultCache;
+    private final DebateMetrics debateMetrics;
+    private final PayloadLogSampler payloadLogSampler;
+    private final DebateTracer tracer;
     
-    public GoogleCustomSearchService(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
+    public GoogleCustomSearchService(CloseableHttpAsyncClient searchHttpClient, ObjectMapper objectMapper,
+                                     SearchResultCache searchResultCache, DebateMetrics debateMetrics,
+                                     PayloadLogSampler payloadLogSampler, DebateTracer tracer) {
+        this.searchHttpClient = searchHttpClient;
         this.objectMapper = objectMapper;
+        this.searchResultCache = searchResultCache;
+        this.debateMetrics = debateMetrics;
+        this.payloadLogSampler = payloadLogSampler;
+        this.tracer = tracer;
     }
     
     @jakarta.annotation.PostConstruct
     public void init() {
         // 제외할 도메인 목록 초기화
-        excludedDomainsList = new ArrayList<>();
+        excludedDomainsList = parseExcludedDomains(excludedDomains);
+        log.info("제외할 도메인 수: {}", excludedDomainsList.size());
+    }
+    
+    // 쉼표로 구분된 제외 도메인 설정을 소문자 목록으로 변환
+    static List<String> parseExcludedDomains(String excludedDomains) {
+        List<String> domains = new ArrayList<>();
         if (excludedDomains != null && !excludedDomains.trim().isEmpty()) {
-            String[] domains = excludedDomains.split(",");
-            for (String domain : domains) {
+            for (String domain : excludedDomains.split(",")) {
                 String trimmed = domain.trim();
                 if (!trimmed.isEmpty()) {
-                    excludedDomainsList.add(trimmed.toLowerCase());
+                    domains.add(trimmed.toLowerCase());
                 }
             }
         }
-        System.out.println("[GoogleCustomSearchService] 제외할 도메인 수: " + excludedDomainsList.size());
+        return domains;
     }
-    
+
     /**
      * Google Custom Search API를 사용하여 웹 검색을 수행합니다.
      * 
@@ -57,133 +93,198 @@ public class GoogleCustomSearchService {
      * @return 검색 결과 리스트 (제목, 링크, 스니펫 포함)
      */
     public List<SearchResult> search(String query, int numResults) {
-        System.out.println("\n========== [웹 검색 시작] ==========");
-        System.out.println("[검색 쿼리] " + query);
-        System.out.println("[요청 결과 수] " + numResults);
-        
-        if (query == null || query.trim().isEmpty()) {
-            System.out.println("[검색 결과] 쿼리가 비어있어 검색을 건너뜁니다.");
-            System.out.println("=====================================\n");
+        try {
+            return searchAsync(query, numResults).join();
+        } catch (Exception e) {
+            log.warn("검색 결과를 받지 못했습니다: {} ({})", query, e.getMessage());
             return new ArrayList<>();
         }
+    }
+
+    /**
+     * 비동기로 웹 검색을 수행합니다. 응답을 기다리는 동안 호출 스레드를 점유하지 않습니다.
+     * 반환된 future를 취소하거나 orTimeout 등으로 시간 초과시키면 진행 중인 HTTP 요청도 중단됩니다.
+     * (같은 검색을 기다리는 다른 호출자가 있으면 그 호출자들의 결과는 유지됩니다.)
+     */
+    public CompletableFuture<List<SearchResult>> searchAsync(String query, int numResults) {
+        if (query == null || query.trim().isEmpty()) {
+            log.debug("쿼리가 비어있어 검색을 건너뜁니다.");
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
         
         // API 키와 CX ID가 설정되지 않은 경우 빈 결과 반환
         if (apiKey == null || apiKey.trim().isEmpty() || cxId == null || cxId.trim().isEmpty()) {
-            System.err.println("[검색 실패] Google Custom Search API 키 또는 CX ID가 설정되지 않았습니다.");
-            System.out.println("=====================================\n");
-            return new ArrayList<>();
+            log.warn("Google Custom Search API 키 또는 CX ID가 설정되지 않았습니다.");
+            return CompletableFuture.completedFuture(new ArrayList<>());
         }
         
         // 결과 수 제한 (1-10)
         int safeNumResults = Math.max(1, Math.min(10, numResults));
-        System.out.println("[실제 요청 결과 수] " + safeNumResults);
-        
+        log.debug("웹 검색: query={}, numResults={}", query, safeNumResults);
+
+        // 검색 스팬은 결과(또는 시간 초과/취소)가 도착하는 스레드에서 종료
+        // apiCall=false이면 캐시 또는 진행 중인 같은 검색 결과를 재사용한 것
+        Span span = tracer.startSpan("search")
+                .setAttribute("query", query)
+                .setAttribute("apiCall", false);
+
+        // 같은 검색어는 캐시 또는 진행 중인 호출 결과를 재사용
+        CompletableFuture<List<SearchResult>> results = searchResultCache.getAsync(query, safeNumResults, () -> {
+            span.setAttribute("apiCall", true);
+            return fetch(query, safeNumResults);
+        });
+        results.whenComplete((list, ex) -> {
+            if (ex != null) {
+                span.recordError(ex);
+            } else {
+                span.setAttribute("results", list.size());
+            }
+            span.end();
+        });
+        return results;
+    }
+
+    // 실제 Google Custom Search API 호출 (오류 시 빈 리스트, 시간 초과/취소 시 예외로 완료)
+    private CompletableFuture<List<SearchResult>> fetch(String query, int safeNumResults) {
+        // 검색어와 키는 쿼리 파라미터로 인코딩 (공백, &, # 등이 포함된 검색어도 그대로 전달되도록)
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl)
+                .queryParam("key", apiKey)
+                .queryParam("cx", cxId)
+                .queryParam("q", query)
+                .queryParam("num", safeNumResults)
+                .encode()
+                .build()
+                .toUri();
+
+        CompletableFuture<List<SearchResult>> result = new CompletableFuture<>();
+        long startNanos = System.nanoTime();
+        // 응답 콜백은 HTTP 클라이언트 I/O 스레드에서 실행되므로 요청 스레드의 MDC(debateId)를 복사해 둠
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        Future<SimpleHttpResponse> exchange = searchHttpClient.execute(SimpleRequestBuilder.get(uri).build(),
+                new FutureCallback<>() {
+                    @Override
+                    public void completed(SimpleHttpResponse response) {
+                        withMdc(mdc, () -> result.complete(parseResponse(query, response.getCode(), response.getBodyText())));
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        withMdc(mdc, () -> log.warn("Google Custom Search API 호출 중 오류 발생: {} ({})",
+                                e.getMessage(), e.getClass().getSimpleName()));
+                        result.complete(new ArrayList<>());
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        result.cancel(false);
+                    }
+                });
+
+        // 취소되거나 시간 초과되면 HTTP 요청을 중단하고 커넥션을 정리
+        result.whenComplete((results, ex) -> {
+            if (ex != null) {
+                log.debug("검색 중단: {} ({})", query, ex.getClass().getSimpleName());
+                exchange.cancel(true);
+                debateMetrics.recordSearch(startNanos, ex instanceof TimeoutException ? "timeout" : "cancelled", 0);
+            } else {
+                debateMetrics.recordSearch(startNanos, results.isEmpty() ? "empty" : "success", results.size());
+            }
+        });
+        return result.orTimeout(requestTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    // 검색 API 응답 본문을 결과 리스트로 변환 (오류 시 빈 리스트 반환)
+    private List<SearchResult> parseResponse(String query, int statusCode, String response) {
         try {
-            // API 요청 URL 구성
-            // 원본 검색어를 그대로 사용 (인코딩 없이)
-            String url = baseUrl + "?key=" + apiKey + "&cx=" + cxId + "&q=" + query + "&num=" + safeNumResults;
-            
-            System.out.println("[API 호출] Google Custom Search API 요청 중...");
-            System.out.println("[원본 검색어 (인코딩 없이)] " + query);
-            System.out.println("[요청 URL] " + url.replace("key=" + apiKey, "key=***").replace("cx=" + cxId, "cx=***"));
-            
-            // API 호출
-            String response = restTemplate.getForObject(url, String.class);
-            
-            System.out.println("[응답 수신] 응답 길이: " + (response != null ? response.length() : 0) + "자");
-            
+            if (statusCode >= 300) {
+                log.warn("Google Custom Search API 오류 응답: status={}, body={}", statusCode, payloadLogSampler.truncate(response));
+                return new ArrayList<>();
+            }
+
             if (response == null || response.isEmpty()) {
-                System.err.println("[검색 실패] Google Custom Search API 응답이 비어있습니다.");
-                System.out.println("=====================================\n");
+                log.warn("Google Custom Search API 응답이 비어있습니다: {}", query);
                 return new ArrayList<>();
             }
             
-            // 응답 원본 전체 출력
-            System.out.println("[응답 원본 JSON 전체]");
-            System.out.println(response);
-            System.out.println();
+            // 응답 원문은 DEBUG에서 일부 호출만 잘라서 기록
+            if (log.isDebugEnabled() && payloadLogSampler.sample()) {
+                log.debug("검색 API 응답 원문 ({}자): {}", response.length(), payloadLogSampler.truncate(response));
+            }
             
             // JSON 파싱
             JsonNode rootNode = objectMapper.readTree(response);
             
-            // 응답 구조 분석
-            System.out.println("[응답 구조 분석]");
             if (rootNode.has("error")) {
-                JsonNode error = rootNode.get("error");
-                System.err.println("[API 오류] " + error.toString());
+                log.warn("Google Custom Search API 오류: {}", rootNode.get("error"));
             }
-            if (rootNode.has("searchInformation")) {
-                JsonNode searchInfo = rootNode.get("searchInformation");
-                System.out.println("  - 검색 시간: " + (searchInfo.has("searchTime") ? searchInfo.get("searchTime").asText() : "N/A"));
-                System.out.println("  - 총 결과 수: " + (searchInfo.has("totalResults") ? searchInfo.get("totalResults").asText() : "N/A"));
+            if (log.isDebugEnabled()) {
+                JsonNode searchInfo = rootNode.path("searchInformation");
+                log.debug("검색 정보: 검색 시간 {}, 총 결과 수 {}, 실제 검색어 {}",
+                        searchInfo.path("searchTime").asText("N/A"),
+                        searchInfo.path("totalResults").asText("N/A"),
+                        rootNode.path("queries").path("request").path(0).path("searchTerms").asText("N/A"));
             }
-            if (rootNode.has("context")) {
-                JsonNode context = rootNode.get("context");
-                System.out.println("  - CSE 이름: " + (context.has("title") ? context.get("title").asText() : "N/A"));
-            }
-            if (rootNode.has("queries")) {
-                JsonNode queries = rootNode.get("queries");
-                if (queries.has("request") && queries.get("request").isArray() && queries.get("request").size() > 0) {
-                    JsonNode request = queries.get("request").get(0);
-                    String searchTerms = request.has("searchTerms") ? request.get("searchTerms").asText() : "N/A";
-                    System.out.println("  - 실제 검색어: " + searchTerms);
-                    System.out.println("  - 입력 인코딩: " + (request.has("inputEncoding") ? request.get("inputEncoding").asText() : "N/A"));
-                }
-            }
-            System.out.println();
             
             List<SearchResult> results = new ArrayList<>();
             
             // items 배열에서 결과 추출
             JsonNode itemsNode = rootNode.get("items");
             if (itemsNode != null && itemsNode.isArray()) {
-                System.out.println("[검색 성공] " + itemsNode.size() + "개의 결과를 찾았습니다.");
-                System.out.println("\n[검색 결과 상세]");
-                
                 for (int i = 0; i < itemsNode.size(); i++) {
                     JsonNode item = itemsNode.get(i);
                     String title = item.has("title") ? item.get("title").asText() : "";
                     String link = item.has("link") ? item.get("link").asText() : "";
                     String snippet = item.has("snippet") ? item.get("snippet").asText() : "";
-                    
-                    System.out.println("  [" + (i + 1) + "] " + title);
-                    System.out.println("      링크: " + link);
-                    System.out.println("      내용: " + (snippet.length() > 100 ? snippet.substring(0, 100) + "..." : snippet));
-                    System.out.println();
-                    
+                    log.trace("검색 결과 [{}] {} ({})", i + 1, title, link);
                     results.add(new SearchResult(title, link, snippet));
                 }
-            } else {
-                System.out.println("[검색 결과] 검색 결과가 없습니다.");
             }
             
-            System.out.println("[최종 결과] 총 " + results.size() + "개의 검색 결과를 반환합니다.");
-            System.out.println("=====================================\n");
-            
+            log.debug("검색 완료: query={}, 결과 {}개", query, results.size());
             return results;
             
         } catch (Exception e) {
-            System.err.println("[검색 오류] Google Custom Search API 호출 중 오류 발생: " + e.getMessage());
-            System.err.println("[오류 상세] " + e.getClass().getSimpleName());
-            e.printStackTrace();
-            System.out.println("=====================================\n");
+            log.warn("Google Custom Search API 응답 처리 중 오류 발생: {}", e.getMessage(), e);
             return new ArrayList<>();
         }
     }
+
+    private static void withMdc(Map<String, String> mdc, Runnable action) {
+        if (mdc == null) {
+            action.run();
+            return;
+        }
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        MDC.setContextMap(mdc);
+        try {
+            action.run();
+        } finally {
+            if (previous != null) {
+                MDC.setContextMap(previous);
+            } else {
+                MDC.clear();
+            }
+        }
+    }
     
     /**
      * 검색 결과를 포맷팅된 문자열로 반환합니다.
      * GPT 프롬프트에 포함하기 적합한 형식입니다.
      */
     public String formatSearchResults(String query, int numResults) {
-        System.out.println("[포맷팅 시작] 검색 결과를 GPT 프롬프트 형식으로 변환합니다.");
-        System.out.println("[검색 쿼리] " + query);
-        
         // 검색 수행
         List<SearchResult> results = search(query, numResults);
-        
+        return formatResults(query, results, excludedDomainsList);
+    }
+
+    // 이미 받은 검색 결과를 제외 도메인 필터링 후 프롬프트 문자열로 변환
+    public String formatSearchResults(String query, List<SearchResult> results) {
+        return formatResults(query, results, excludedDomainsList);
+    }
+
+    // 제외 도메인/Untitled 결과를 걸러 프롬프트 문자열로 변환 (벤치마크(src/jmh)에서 직접 호출하므로 package-private)
+    static String formatResults(String query, List<SearchResult> results, List<String> excludedDomainsList) {
         if (results.isEmpty()) {
-            System.out.println("[포맷팅 완료] 검색 결과가 없습니다.");
             return "검색 결과를 찾을 수 없습니다.";
         }
         
@@ -198,7 +299,7 @@ public class GoogleCustomSearchService {
                 for (String excludedDomain : excludedDomainsList) {
                     if (linkLower.contains(excludedDomain)) {
                         shouldExclude = true;
-                        System.out.println("[필터링] 제외 도메인으로 인해 제외: " + result.getTitle() + " (" + excludedDomain + ")");
+                        log.debug("제외 도메인으로 인해 제외: {} ({})", result.getTitle(), excludedDomain);
                         break;
                     }
                 }
@@ -207,7 +308,7 @@ public class GoogleCustomSearchService {
             // "Untitled" 제목 제외
             if (result.getTitle() != null && result.getTitle().trim().equalsIgnoreCase("Untitled")) {
                 shouldExclude = true;
-                System.out.println("[필터링] Untitled 제목으로 인해 제외: " + result.getLink());
+                log.debug("Untitled 제목으로 인해 제외: {}", result.getLink());
             }
             
             if (!shouldExclude) {
@@ -215,10 +316,9 @@ public class GoogleCustomSearchService {
             }
         }
         
-        System.out.println("[필터링 결과] " + results.size() + "개 중 " + filteredResults.size() + "개 사용");
+        log.debug("필터링 결과: {}개 중 {}개 사용", results.size(), filteredResults.size());
         
         if (filteredResults.isEmpty()) {
-            System.out.println("[포맷팅 완료] 필터링 후 결과가 없습니다.");
             return "검색 결과를 찾을 수 없거나 모든 결과가 필터링되었습니다.";
         }
         
@@ -233,9 +333,6 @@ public class GoogleCustomSearchService {
             formatted.append("    내용: ").append(result.getSnippet()).append("\n\n");
         }
         
-        System.out.println("[포맷팅 완료] " + filteredResults.size() + "개의 검색 결과를 포함한 프롬프트를 생성했습니다.");
-        System.out.println("[프롬프트 길이] " + formatted.length() + "자");
-        
         return formatted.toString();
     }
     
@@ -1,45 +1,28 @@
 package com.example.demo.service;
 
 import com.example.demo.entity.ChatEntity;
-
-// 1. Spring AI (1.0.3 API)의 올바른 import 경로
-import org.springframework.ai.openai.OpenAiChatModel;
-import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.messages.SystemMessage;
-import org.springframework.ai.chat.messages.UserMessage;
-import org.springframework.ai.chat.messages.AssistantMessage;
-import org.springframework.ai.chat.model.ChatResponse;
-import org.springframework.ai.chat.prompt.Prompt;
-
-import org.springframework.ai.openai.OpenAiChatOptions;
-import org.springframework.ai.openai.api.ResponseFormat;
+import com.example.demo.llm.LlmProvider;
+import com.example.demo.llm.LlmRateLimitException;
+import com.example.demo.llm.LlmRequest;
+import com.example.demo.llm.LlmResponse;
+import com.example.demo.tracing.DebateTracer;
+import com.example.demo.tracing.Span;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
 
+@Slf4j
 @Service
 public class GptService {
-    private final OpenAiChatModel openAiChatModel;
-
-    public GptService(OpenAiChatModel openAiChatModel) {
-        this.openAiChatModel = openAiChatModel;
-    }
-
-
-    @Transactional
-    public ChatEntity requestGpt(List<Map<String, String>> messages, String senderRole) {
-
-        // 1. 공통 옵션 빌더 생성
-        OpenAiChatOptions.Builder optionsBuilder = OpenAiChatOptions.builder()
-                .model("gpt-5-nano-2025-08-07")
-                .temperature(1.0);
-        // 2. "moderator"일 경우 JSON 모드 활성화
-        if ("moderator".equals(senderRole)) {
-            String schema = """
+    private static final String MODEL = "gpt-5-nano-2025-08-07";
+    private static final double TEMPERATURE = 1.0;
+    private static final String MODERATOR_SCHEMA = """
             {
               "type": "object",
               "properties": {
@@ -63,71 +46,147 @@ public class GptService {
               "required": ["request", "shouldEnd"],
               "additionalProperties": false
             }
-           """;
-            optionsBuilder.responseFormat(new ResponseFormat(ResponseFormat.Type.JSON_SCHEMA, schema));
-        }
+            """;
+
+    private final LlmProvider llmProvider;
+    // 실행 모드와 무관하게 프로바이더로 동시에 나가는 호출 수를 제한 (가상 스레드 모드에서 폭주 방지)
+    private final Semaphore callPermits;
+    private final LlmResponseCache responseCache;
+    private final DebateMetrics debateMetrics;
+    private final DebateTracer tracer;
+    private final LlmRateLimiter rateLimiter;
+    // 프로바이더가 429로 거절한 호출을 속도 제한기 대기 후 다시 시도할 횟수
+    private final int rateLimitRetries;
+
+    public GptService(LlmProvider llmProvider, LlmResponseCache responseCache,
+                      DebateMetrics debateMetrics, DebateTracer tracer, LlmRateLimiter rateLimiter,
+                      @Value("${chat.llm.max-concurrent-calls:64}") int maxConcurrentCalls,
+                      @Value("${chat.llm.rate-limit.retries:2}") int rateLimitRetries) {
+        this.llmProvider = llmProvider;
+        this.responseCache = responseCache;
+        this.debateMetrics = debateMetrics;
+        this.tracer = tracer;
+        this.rateLimiter = rateLimiter;
+        this.rateLimitRetries = rateLimitRetries;
+        this.callPermits = new Semaphore(maxConcurrentCalls, true);
+    }
 
-        // 3. 최종 옵션 빌드
-        OpenAiChatOptions options = optionsBuilder.build();
+    // 호출마다 llm.call 스팬을 남김 (role, round, 토큰, 캐시 적중, 세마포어 대기 시간)
+    public ChatEntity requestGpt(List<Map<String, String>> messages, String senderRole) {
+        Span parent = DebateTracer.currentSpan();
+        Span span = tracer.startSpan("llm.call")
+                .setAttribute("role", senderRole)
+                .setAttribute("round", parent.getAttribute("round"));
+        try (DebateTracer.Scope scope = span.makeCurrent()) {
+            ChatEntity answer = callProvider(messages, senderRole, span);
+            span.setAttribute("tokens", answer.getTokensUsed());
+            return answer;
+        } finally {
+            span.end();
+        }
+    }
 
-        // 4. ChatService의 List<Map>을 Spring AI의 List<Message>로 변환
-        List<Message> springAiMessages = messages.stream()
-                .map(msgMap -> {
-                    String role = msgMap.get("role");
-                    String content = msgMap.get("content");
-                    switch (role) {
-                        case "system":
-                            return new SystemMessage(content);
-                        case "user":
-                            return new UserMessage(content);
-                        case "assistant":
-                            return new AssistantMessage(content);
-                        default:
-                            return new UserMessage(content); // 기본값
-                    }
-                })
-                .collect(Collectors.toList());
+    private ChatEntity callProvider(List<Map<String, String>> messages, String senderRole, Span span) {
+        // 동일한 요청에 대한 캐시된 응답이 있으면 네트워크 호출 없이 반환
+        String schema = "moderator".equals(senderRole) ? MODERATOR_SCHEMA : null;
+        String cacheKey = responseCache.isEnabledFor(senderRole)
+                ? responseCache.key(senderRole, MODEL, TEMPERATURE, schema, messages)
+                : null;
+        if (cacheKey != null) {
+            Optional<LlmResponseCache.CachedResponse> cached = responseCache.get(cacheKey);
+            if (cached.isPresent()) {
+                log.debug("LLM 캐시 적중: {}", senderRole);
+                debateMetrics.recordCacheHit(senderRole);
+                span.setAttribute("cacheHit", true);
+                return ChatEntity.builder()
+                        .message(cached.get().message())
+                        .sender(senderRole)
+                        .timestamp(Instant.now().toString())
+                        .tokensUsed(0L) // 캐시 적중 시 토큰 사용 없음
+                        .build();
+            }
+            debateMetrics.recordCacheMiss(senderRole);
+        }
 
-        Prompt prompt = new Prompt(springAiMessages, options);
+        // 사회자는 스키마에 맞는 JSON 응답을 요청
+        LlmRequest request = new LlmRequest(senderRole, MODEL, TEMPERATURE, schema, messages);
 
-        ChatResponse response;
+        LlmResponse response;
         try {
-            // .call()이 Prompt에 포함된 options를 사용합니다.
-            response = openAiChatModel.call(prompt);
+            response = callWithRateLimit(request, span);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            span.setStatus("cancelled");
+            return createErrorEntity(senderRole);
         } catch (Exception e) {
-            System.err.println("Spring AI API 호출 중 오류 발생: " + e.getMessage());
-            e.printStackTrace();
+            span.recordError(e);
+            log.warn("LLM 호출 중 오류 발생 ({}, {}): {}", llmProvider.name(), senderRole, e.getMessage(), e);
             return createErrorEntity(senderRole);
         }
 
-        // 6. 응답 파싱 및 토큰 사용량 추출
-        ChatEntity assistantMessage = null;
-        String answer = "오류: 답변을 받아올 수 없습니다.";
-        Long tokensUsed = 0L;
+        // 응답 파싱 및 토큰 사용량 추출
+        if (response == null) {
+            span.setStatus("error");
+            return createErrorEntity(senderRole);
+        }
 
-        if (response != null && response.getResult() != null) {
-            answer = response.getResult().getOutput().getText();
-            
-            // 토큰 사용량 추출
-            if (response.getMetadata() != null && response.getMetadata().getUsage() != null) {
-                var usage = response.getMetadata().getUsage();
-                tokensUsed = usage.getTotalTokens() != null ? usage.getTotalTokens() : 0L;
-            }
+        String answer = response.text();
+        Long tokensUsed = response.totalTokens() != null ? response.totalTokens() : 0L;
+        // 프롬프트 캐시 적중률은 debate.llm.tokens{type=cached} / {type=prompt} 로 관찰
+        debateMetrics.recordTokens(senderRole, response.promptTokens(), response.totalTokens(), response.cachedPromptTokens());
+        span.setAttribute("promptTokens", response.promptTokens())
+                .setAttribute("cachedPromptTokens", response.cachedPromptTokens());
 
-            assistantMessage = ChatEntity.builder()
-                    .message(answer)
-                    .sender(senderRole)
-                    .timestamp(Instant.now().toString())
-                    .tokensUsed(tokensUsed)
-                    .build();
-            System.out.println("ok");
-        } else {
-            assistantMessage = createErrorEntity(senderRole);
+        ChatEntity assistantMessage = ChatEntity.builder()
+                .message(answer)
+                .sender(senderRole)
+                .timestamp(Instant.now().toString())
+                .tokensUsed(tokensUsed)
+                .build();
+        if (cacheKey != null && answer != null) {
+            responseCache.put(cacheKey, answer, tokensUsed);
         }
+        log.debug("LLM 응답 수신: {} (토큰 {})", senderRole, tokensUsed);
 
         return assistantMessage;
     }
 
+    // 속도 제한 허가 → 동시 호출 세마포어 → 프로바이더 호출 순으로 진행
+    // 429로 거절되면 속도 제한기가 한도를 낮추고 재시도 시점까지 대기열을 멈추므로, 다시 허가를 받아 재시도
+    private LlmResponse callWithRateLimit(LlmRequest request, Span span) throws Exception {
+        String role = request.role();
+        for (int attempt = 0; ; attempt++) {
+            long waitStartNanos = System.nanoTime();
+            LlmRateLimiter.Permit permit = rateLimiter.acquire(role, request.messages());
+            // 세마포어 대기 중 인터럽트를 포함한 모든 경로에서 허가를 정산 (사용량을 모르면 추정치를 그대로 차감)
+            Long actualTokens = null;
+            try {
+                callPermits.acquire();
+                long startNanos = System.nanoTime();
+                span.setAttribute("permitWaitMs", (startNanos - waitStartNanos) / 1_000_000);
+                boolean success = false;
+                try {
+                    LlmResponse response = llmProvider.call(request);
+                    success = response != null;
+                    actualTokens = success ? response.totalTokens() : null;
+                    return response;
+                } catch (LlmRateLimitException e) {
+                    rateLimiter.onRateLimited(role, e.getRetryAfter());
+                    span.setAttribute("rateLimited", attempt + 1);
+                    if (attempt >= rateLimitRetries) {
+                        throw e;
+                    }
+                    log.debug("LLM 요청 한도 초과, 다시 시도합니다. ({}, {}/{})", role, attempt + 1, rateLimitRetries);
+                } finally {
+                    callPermits.release();
+                    debateMetrics.recordLlmCall(role, startNanos, success);
+                }
+            } finally {
+                permit.complete(actualTokens);
+            }
+        }
+    }
+
     // 오류 발생 시 사용할 헬퍼 메소드 (수정 없음)
     private ChatEntity createErrorEntity(String senderRole) {
         return ChatEntity.builder()
@@ -0,0 +1,25 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ModeratorResponseDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * 매 라운드 LLM 사회자에게 결정을 맡기는 전략 (기존 동작)
+ */
+@Component
+@ConditionalOnProperty(name = "chat.moderator.strategy", havingValue = "llm")
+public class LlmModeratorStrategy implements ModeratorStrategy {
+
+    @Override
+    public Optional<ModeratorResponseDTO> decide(Round round) {
+        return Optional.empty();
+    }
+
+    @Override
+    public String name() {
+        return "llm";
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.demo.service;
+
+import com.example.demo.llm.LlmRateLimitException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LLM 프로바이더 호출 속도 제한 (분당 요청 수 RPM, 분당 토큰 수 TPM).
+ * - 호출 전 프롬프트 추정 토큰 + 예상 응답 토큰을 차감하고, 응답 후 실제 사용량과의 차이를 되돌려 정산
+ * - 대기자는 역할 우선순위 순으로 허가를 받음 (사회자 > 요약 > 전문가). 사회자 호출이 라운드 전체를 막고 있기 때문
+ * - 배치 레인(MDC lane=batch)의 호출은 역할과 관계없이 모든 대화형 호출 뒤에서 허가를 받음
+ * - 429 응답을 받으면 한도를 절반으로 낮추고 Retry-After 동안 모든 호출을 멈춘 뒤, 성공할 때마다 조금씩 원래 한도로 회복 (AIMD)
+ * 한도는 인스턴스 단위이므로 여러 인스턴스를 띄우면 조직 한도를 인스턴스 수로 나눈 값으로 설정합니다.
+ */
+@Slf4j
+@Component
+public class LlmRateLimiter {
+    // 역할별 우선순위 (작을수록 먼저). 나머지 역할은 전문가로 취급
+    private static final Map<String, Integer> ROLE_PRIORITY = Map.of("moderator", 0, "summarizer", 1);
+    private static final int EXPERT_PRIORITY = 2;
+    // 호출 레인 MDC 키. 배치 토론(DebateBatchService)은 batch로 설정하며 gptExecutor 작업에도 전파됨
+    public static final String MDC_LANE = "lane";
+    public static final String BATCH_LANE = "batch";
+    // 배치 레인 호출은 역할과 관계없이 대화형 호출 뒤에 처리 (FairLlmScheduler도 같은 값 사용)
+    static final int BATCH_PRIORITY_OFFSET = 10;
+
+    private final TokenEstimator tokenEstimator;
+    private final DebateMetrics debateMetrics;
+    private final boolean enabled;
+    private final double requestsPerMinute;
+    private final double tokensPerMinute;
+    private final double burstSeconds;
+    private final int expectedCompletionTokens;
+    private final long maxWaitNanos;
+    private final double minLimitFraction;
+    private final double increaseStep;
+    private final long defaultRetryAfterNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(
+            Comparator.comparingInt(Waiter::priority).thenComparingLong(Waiter::sequence));
+    private long sequence;
+    // 남은 요청/토큰 (음수면 실제 사용량이 추정보다 많아 생긴 부채)
+    private double availableRequests;
+    private double availableTokens;
+    private long lastRefillNanos;
+    // 429 피드백으로 조정되는 한도 비율 (minLimitFraction ~ 1.0)
+    private volatile double limitFactor = 1.0;
+    private long blockedUntilNanos;
+    private long lastDecreaseNanos;
+
+    public LlmRateLimiter(TokenEstimator tokenEstimator, DebateMetrics debateMetrics, MeterRegistry meterRegistry,
+                          @Value("${chat.llm.rate-limit.enabled:true}") boolean enabled,
+                          @Value("${chat.llm.rate-limit.requests-per-minute:500}") double requestsPerMinute,
+                          @Value("${chat.llm.rate-limit.tokens-per-minute:200000}") double tokensPerMinute,
+                          @Value("${chat.llm.rate-limit.burst-seconds:10}") double burstSeconds,
+                          @Value("${chat.llm.rate-limit.expected-completion-tokens:500}") int expectedCompletionTokens,
+                          @Value("${chat.llm.rate-limit.max-wait-ms:60000}") long maxWaitMs,
+                          @Value("${chat.llm.rate-limit.min-limit-fraction:0.1}") double minLimitFraction,
+                          @Value("${chat.llm.rate-limit.increase-step:0.02}") double increaseStep,
+                          @Value("${chat.llm.rate-limit.default-retry-after-ms:1000}") long defaultRetryAfterMs) {
+        this.tokenEstimator = tokenEstimator;
+        this.debateMetrics = debateMetrics;
+        this.enabled = enabled;
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+        this.burstSeconds = burstSeconds;
+        this.expectedCompletionTokens = expectedCompletionTokens;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.minLimitFraction = minLimitFraction;
+        this.increaseStep = increaseStep;
+        this.defaultRetryAfterNanos = TimeUnit.MILLISECONDS.toNanos(defaultRetryAfterMs);
+        this.availableRequests = requestCapacity();
+        this.availableTokens = tokenCapacity();
+        this.lastRefillNanos = System.nanoTime();
+        // System.nanoTime()은 기준점이 임의이므로 0이 아닌 현재 시각을 기준으로 초기화
+        this.blockedUntilNanos = lastRefillNanos;
+        this.lastDecreaseNanos = lastRefillNanos - TimeUnit.DAYS.toNanos(1);
+
+        Gauge.builder("debate.llm.ratelimit.waiting", this, LlmRateLimiter::waiting)
+                .description("속도 제한 허가를 기다리는 LLM 호출 수")
+                .register(meterRegistry);
+        Gauge.builder("debate.llm.ratelimit.limit.factor", this, limiter -> limiter.limitFactor)
+                .description("429 피드백으로 조정된 현재 한도 비율 (1.0 = 설정값)")
+                .register(meterRegistry);
+        log.info("LLM 속도 제한: {} (RPM {}, TPM {})", enabled ? "사용" : "사용 안 함",
+                (long) requestsPerMinute, (long) tokensPerMinute);
+    }
+
+    /**
+     * 호출 허가를 받을 때까지 기다립니다. 우선순위가 높은 대기자가 있으면 그 뒤에서 기다립니다.
+     * max-wait-ms 안에 허가를 받지 못하면 LlmRateLimitException을 던집니다.
+     */
+    public Permit acquire(String role, List<Map<String, String>> messages) throws InterruptedException {
+        if (!enabled) {
+            return Permit.NONE;
+        }
+        long estimatedTokens = tokenEstimator.estimateMessages(messages) + (long) expectedCompletionTokens;
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + maxWaitNanos;
+
+        lock.lockInterruptibly();
+        try {
+            // 버킷 용량보다 큰 요청은 용량만큼만 기다린 뒤 나머지는 부채로 정산
+            Waiter me = new Waiter(priority(role), sequence++,
+                    Math.min(estimatedTokens, (long) tokenCapacity()));
+            waiters.add(me);
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+                    refill(now);
+                    long sleepNanos = deadline - now;
+                    if (waiters.peek() == me) {
+                        long untilAvailable = nanosUntilAvailable(me.tokens(), now);
+                        if (untilAvailable <= 0) {
+                            waiters.poll();
+                            availableRequests -= 1;
+                            availableTokens -= me.tokens();
+                            // 다음 대기자도 바로 허가받을 수 있는지 확인하도록 깨움
+                            changed.signalAll();
+                            debateMetrics.recordRateLimitWait(role, System.nanoTime() - startNanos);
+                            return new Permit(this, me.tokens());
+                        }
+                        sleepNanos = Math.min(sleepNanos, untilAvailable);
+                    }
+                    if (deadline - now <= 0) {
+                        throw new LlmRateLimitException("속도 제한 대기 시간 초과 (" + role + ")", null);
+                    }
+                    changed.awaitNanos(sleepNanos);
+                }
+            } finally {
+                // 시간 초과/인터럽트로 빠져나온 경우 대기열에서 제거하고 뒤의 대기자를 깨움
+                if (waiters.remove(me)) {
+                    changed.signalAll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 프로바이더가 429로 거절한 경우: 한도를 절반으로 낮추고 재시도 시점까지 모든 호출을 멈춤
+    public void onRateLimited(String role, Optional<Duration> retryAfter) {
+        if (!enabled) {
+            return;
+        }
+        debateMetrics.recordProviderRateLimited(role);
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            long pauseNanos = retryAfter.map(Duration::toNanos).orElse(defaultRetryAfterNanos);
+            blockedUntilNanos = Math.max(blockedUntilNanos, now + pauseNanos);
+            // 동시에 도착한 여러 429로 한도가 연속해서 줄어들지 않도록 일시 정지 시간 동안 한 번만 감소
+            if (now - lastDecreaseNanos >= pauseNanos) {
+                limitFactor = Math.max(minLimitFraction, limitFactor / 2);
+                lastDecreaseNanos = now;
+                availableRequests = Math.min(availableRequests, 0);
+                availableTokens = Math.min(availableTokens, 0);
+                log.warn("LLM 요청 한도 초과 ({}), 한도를 {}%로 낮추고 {}ms 대기합니다.", role,
+                        Math.round(limitFactor * 100), TimeUnit.NANOSECONDS.toMillis(pauseNanos));
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 실제 사용량으로 정산하고, 성공한 호출마다 한도를 조금씩 회복
+    private void complete(long reservedTokens, Long actualTokens) {
+        lock.lock();
+        try {
+            if (actualTokens != null) {
+                availableTokens += reservedTokens - actualTokens;
+                limitFactor = Math.min(1.0, limitFactor + increaseStep);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int priority(String role) {
+        int priority = ROLE_PRIORITY.getOrDefault(role, EXPERT_PRIORITY);
+        return BATCH_LANE.equals(MDC.get(MDC_LANE)) ? priority + BATCH_PRIORITY_OFFSET : priority;
+    }
+
+    private void refill(long now) {
+        double elapsedMinutes = (now - lastRefillNanos) / 60_000_000_000.0;
+        lastRefillNanos = now;
+        availableRequests = Math.min(requestCapacity(), availableRequests + elapsedMinutes * requestsPerMinute * limitFactor);
+        availableTokens = Math.min(tokenCapacity(), availableTokens + elapsedMinutes * tokensPerMinute * limitFactor);
+    }
+
+    private long nanosUntilAvailable(long tokens, long now) {
+        long wait = blockedUntilNanos - now;
+        double requestDeficit = 1 - availableRequests;
+        if (requestDeficit > 0) {
+            wait = Math.max(wait, (long) Math.ceil(requestDeficit / (requestsPerMinute * limitFactor) * 60_000_000_000.0));
+        }
+        double tokenDeficit = tokens - availableTokens;
+        if (tokenDeficit > 0) {
+            wait = Math.max(wait, (long) Math.ceil(tokenDeficit / (tokensPerMinute * limitFactor) * 60_000_000_000.0));
+        }
+        return wait;
+    }
+
+    // 한 번에 몰아서 보낼 수 있는 최대량 (burst-seconds 동안의 허용량, 최소 요청 1건)
+    private double requestCapacity() {
+        return Math.max(1, requestsPerMinute * limitFactor * burstSeconds / 60);
+    }
+
+    private double tokenCapacity() {
+        return Math.max(1, tokensPerMinute * limitFactor * burstSeconds / 60);
+    }
+
+    private int waiting() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Waiter(int priority, long sequence, long tokens) {
+    }
+
+    /**
+     * 받은 허가. 호출이 끝나면 complete()로 실제 토큰 사용량을 알려 정산합니다.
+     * 실패한 호출(사용량 모름)은 null을 전달하여 추정치를 그대로 차감한 상태로 둡니다.
+     */
+    public static final class Permit {
+        static final Permit NONE = new Permit(null, 0);
+
+        private final LlmRateLimiter limiter;
+        private final long reservedTokens;
+
+        private Permit(LlmRateLimiter limiter, long reservedTokens) {
+            this.limiter = limiter;
+            this.reservedTokens = reservedTokens;
+        }
+
+        public void complete(Long actualTokens) {
+            if (limiter != null) {
+                limiter.complete(reservedTokens, actualTokens);
+            }
+        }
+    }
+}
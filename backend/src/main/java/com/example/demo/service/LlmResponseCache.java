@@ -0,0 +1,219 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * 동일한 (역할, 모델, 옵션, 메시지) 요청에 대한 LLM 응답 캐시.
+ * 요청 내용을 정규화한 SHA-256 해시를 키로 사용하며, 메모리(LRU + TTL)와 선택적인 디스크 계층으로 구성됩니다.
+ * 디스크 계층은 파일 수가 disk-max-entries를 넘으면 쓰기 시점에 만료된 파일과 오래된 파일부터 지웁니다.
+ * 적중/실패 수는 GptService가 debate.llm.cache.hits / misses{role} 로 기록합니다.
+ */
+@Slf4j
+@Component
+public class LlmResponseCache {
+    private final ObjectMapper objectMapper;
+
+    @Value("${chat.llm-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${chat.llm-cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${chat.llm-cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    // 비어 있으면 디스크 계층 사용 안 함
+    @Value("${chat.llm-cache.disk-dir:}")
+    private String diskDir;
+
+    // 디스크 계층 최대 파일 수. 넘으면 정리 후 이 값의 90%까지 줄여 쓰기마다 정리하지 않도록 함
+    @Value("${chat.llm-cache.disk-max-entries:10000}")
+    private int diskMaxEntries;
+
+    // 캐시를 사용하지 않을 역할 (예: 높은 temperature로 매번 다른 결정을 기대하는 moderator)
+    @Value("${chat.llm-cache.disabled-roles:moderator}")
+    private List<String> disabledRoles;
+
+    private final Map<String, CachedResponse> memory = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    private final Object diskLock = new Object();
+    // 디스크 계층의 대략적인 파일 수 (-1이면 아직 세지 않음)
+    private int diskEntries = -1;
+
+    public LlmResponseCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isEnabledFor(String role) {
+        return enabled && !disabledRoles.contains(role);
+    }
+
+    // 역할, 모델, 옵션과 메시지 목록을 고정된 형식으로 직렬화한 뒤 해시
+    public String key(String role, String model, double temperature, String responseSchema, List<Map<String, String>> messages) {
+        StringBuilder canonical = new StringBuilder();
+        canonical.append(role).append('\n')
+                .append(model).append('\n')
+                .append(temperature).append('\n')
+                .append(responseSchema != null ? responseSchema : "").append('\n');
+        for (Map<String, String> message : messages) {
+            String content = message.get("content") != null ? message.get("content") : "";
+            // 길이를 함께 넣어 메시지 경계가 모호해지지 않도록 함
+            canonical.append(message.get("role")).append(':').append(content.length()).append(':').append(content).append('\n');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Optional<CachedResponse> get(String key) {
+        long now = System.currentTimeMillis();
+        CachedResponse cached;
+        synchronized (memory) {
+            cached = memory.get(key);
+            if (cached != null && cached.isExpired(now, ttlSeconds)) {
+                memory.remove(key);
+                cached = null;
+            }
+        }
+        if (cached == null) {
+            cached = readFromDisk(key, now);
+            if (cached != null) {
+                synchronized (memory) {
+                    memory.put(key, cached);
+                }
+            }
+        }
+        return Optional.ofNullable(cached);
+    }
+
+    public void put(String key, String message, Long tokensUsed) {
+        CachedResponse cached = new CachedResponse(message, tokensUsed, System.currentTimeMillis());
+        synchronized (memory) {
+            memory.put(key, cached);
+        }
+        writeToDisk(key, cached);
+    }
+
+    private CachedResponse readFromDisk(String key, long now) {
+        if (diskDir == null || diskDir.isBlank()) {
+            return null;
+        }
+        Path file = Path.of(diskDir, key + ".json");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            CachedResponse cached = objectMapper.readValue(file.toFile(), CachedResponse.class);
+            if (cached.isExpired(now, ttlSeconds)) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            return cached;
+        } catch (IOException e) {
+            log.warn("디스크 캐시 읽기 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, CachedResponse cached) {
+        if (diskDir == null || diskDir.isBlank()) {
+            return;
+        }
+        try {
+            Path dir = Path.of(diskDir);
+            Files.createDirectories(dir);
+            // 임시 파일에 쓴 뒤 이동하여 읽는 쪽에서 반쯤 쓰인 파일을 보지 않도록 함
+            Path tmp = Files.createTempFile(dir, key, ".tmp");
+            objectMapper.writeValue(tmp.toFile(), cached);
+            Path file = dir.resolve(key + ".json");
+            boolean added = !Files.exists(file);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (added) {
+                evictFromDiskIfFull(dir);
+            }
+        } catch (IOException e) {
+            log.warn("디스크 캐시 쓰기 실패: {}", e.getMessage());
+        }
+    }
+
+    // 파일 수가 한도를 넘으면 만료된 파일, 그다음 오래된 파일 순으로 지움
+    private void evictFromDiskIfFull(Path dir) throws IOException {
+        synchronized (diskLock) {
+            if (diskEntries < 0) {
+                diskEntries = listDiskEntries(dir).size();
+            } else {
+                diskEntries++;
+            }
+            if (diskMaxEntries <= 0 || diskEntries <= diskMaxEntries) {
+                return;
+            }
+            List<Path> files = listDiskEntries(dir);
+            long expiredBefore = System.currentTimeMillis() - ttlSeconds * 1000;
+            List<Path> survivors = new ArrayList<>();
+            int deleted = 0;
+            for (Path file : files) {
+                if (lastModified(file) < expiredBefore) {
+                    deleted += Files.deleteIfExists(file) ? 1 : 0;
+                } else {
+                    survivors.add(file);
+                }
+            }
+            int target = (int) (diskMaxEntries * 0.9);
+            survivors.sort(Comparator.comparingLong(LlmResponseCache::lastModified));
+            for (int i = 0; i < survivors.size() - target; i++) {
+                deleted += Files.deleteIfExists(survivors.get(i)) ? 1 : 0;
+            }
+            diskEntries = files.size() - deleted;
+            log.debug("디스크 캐시 정리: {}개 삭제, {}개 남음", deleted, diskEntries);
+        }
+    }
+
+    private static List<Path> listDiskEntries(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".json")).toList();
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            FileTime time = Files.getLastModifiedTime(file);
+            return time.toMillis();
+        } catch (IOException e) {
+            // 다른 스레드가 이미 지운 파일
+            return 0L;
+        }
+    }
+
+    public record CachedResponse(String message, Long tokensUsed, long createdAt) {
+        boolean isExpired(long now, long ttlSeconds) {
+            return now - createdAt > ttlSeconds * 1000;
+        }
+    }
+}
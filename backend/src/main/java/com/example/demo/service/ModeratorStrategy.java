@@ -0,0 +1,29 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ModeratorResponseDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 라운드마다 어떤 전문가에게 무엇을 물을지 정하는 사회자 전략.
+ * chat.moderator.strategy 설정으로 구현체를 선택합니다. (llm: 매 라운드 LLM 사회자 호출, rules: 예측 가능한 라운드는 로컬 규칙으로 결정)
+ *
+ * 결정을 확신할 수 없으면 Optional.empty()를 반환하며, 이 경우 ChatService가 LLM 사회자를 호출합니다.
+ * 반환한 결정은 LLM 응답과 같은 형식으로 저장되어 이후 라운드의 사회자/전문가 히스토리에 포함됩니다.
+ */
+public interface ModeratorStrategy {
+
+    Optional<ModeratorResponseDTO> decide(Round round);
+
+    String name();
+
+    /**
+     * @param round      현재 라운드 (1부터)
+     * @param maxRounds  최대 라운드
+     * @param question   사용자 질문
+     * @param promptKeys 허용된 전문가 역할
+     */
+    record Round(int round, int maxRounds, String question, List<String> promptKeys) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ChatEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 라운드 완료 조건 (chat.round.completion).
+ * - all: 요청한 모든 전문가의 응답(또는 시간 초과)을 기다림
+ * - quorum: 요청 수 × quorum 비율(올림)만큼 응답이 오면 진행
+ * - first-k: 먼저 도착한 k개의 응답으로 진행
+ * quorum/first-k는 deadline-ms가 지나면 조건을 채우지 못했어도 응답이 하나 이상 있으면 진행합니다.
+ * 조건 충족 후 도착하는 응답은 pending으로 돌려주며, ChatService가 다음 라운드 전에 저장하고 히스토리에 합칩니다.
+ */
+@Slf4j
+@Component
+public class RoundCompletionPolicy {
+
+    @Value("${chat.round.completion:all}")
+    private String mode;
+
+    @Value("${chat.round.quorum:0.6}")
+    private double quorum;
+
+    @Value("${chat.round.first-k:2}")
+    private int firstK;
+
+    @Value("${chat.round.deadline-ms:20000}")
+    private long deadlineMs;
+
+    /**
+     * 완료 조건을 충족할 때까지 기다린 뒤, 그 시점에 도착한 응답(요청 순서)과 아직 진행 중인 요청을 돌려줍니다.
+     * 각 future는 실패/시간 초과 시 null로 완료되어야 합니다.
+     */
+    public RoundResult await(List<CompletableFuture<ChatEntity>> futures) {
+        int required = requiredAnswers(futures.size());
+        CompletableFuture<Void> allDone = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+        if (required >= futures.size()) {
+            allDone.join();
+            return snapshot(futures);
+        }
+
+        CompletableFuture<Void> requiredMet = new CompletableFuture<>();
+        CompletableFuture<Void> firstAnswer = new CompletableFuture<>();
+        AtomicInteger answered = new AtomicInteger();
+        for (CompletableFuture<ChatEntity> future : futures) {
+            future.thenAccept(answer -> {
+                if (answer != null) {
+                    firstAnswer.complete(null);
+                    if (answered.incrementAndGet() >= required) {
+                        requiredMet.complete(null);
+                    }
+                }
+            });
+        }
+        // 모두 실패해 조건을 채울 수 없는 경우에도 빠져나옴
+        allDone.thenRun(() -> {
+            requiredMet.complete(null);
+            firstAnswer.complete(null);
+        });
+
+        try {
+            if (deadlineMs > 0) {
+                try {
+                    requiredMet.get(deadlineMs, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    log.debug("라운드 마감 시간 {}ms 경과, 도착한 응답 {}개로 진행합니다.", deadlineMs, answered.get());
+                    firstAnswer.get();
+                }
+            } else {
+                requiredMet.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // 위 future들은 항상 정상 완료되므로 발생하지 않음
+            throw new IllegalStateException(e);
+        }
+        return snapshot(futures);
+    }
+
+    // 요청 수 대비 진행에 필요한 응답 수 (1 ~ requested)
+    int requiredAnswers(int requested) {
+        int required = switch (mode.toLowerCase(Locale.ROOT)) {
+            case "quorum" -> (int) Math.ceil(requested * quorum);
+            case "first-k" -> firstK;
+            default -> requested;
+        };
+        return Math.max(1, Math.min(requested, required));
+    }
+
+    private RoundResult snapshot(List<CompletableFuture<ChatEntity>> futures) {
+        List<ChatEntity> answers = new ArrayList<>();
+        List<CompletableFuture<ChatEntity>> pending = new ArrayList<>();
+        for (CompletableFuture<ChatEntity> future : futures) {
+            if (future.isDone()) {
+                ChatEntity answer = future.join();
+                if (answer != null) {
+                    answers.add(answer);
+                }
+            } else {
+                pending.add(future);
+            }
+        }
+        return new RoundResult(answers, pending);
+    }
+
+    /**
+     * @param answers 완료 조건 충족 시점까지 도착한 응답 (요청 순서)
+     * @param pending 아직 진행 중인 요청 (늦게 도착한 응답은 다음 라운드 전에 합쳐짐)
+     */
+    public record RoundResult(List<ChatEntity> answers, List<CompletableFuture<ChatEntity>> pending) {
+    }
+}
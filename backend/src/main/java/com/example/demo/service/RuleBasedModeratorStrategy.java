@@ -0,0 +1,68 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ModeratorResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 결정이 예측 가능한 라운드는 LLM 사회자 호출 없이 로컬 규칙으로 결정하는 전략.
+ * - 1라운드: 선택된 모든 역할에게 사용자 질문 (사회자 응답 파싱 실패 시의 기본 동작과 같음)
+ * - 진행률이 end-at-progress 이상인 라운드(2라운드부터): 종료. 사회자 프롬프트가 80% 이상 진행 시 반드시 종료하도록 지시하므로 결과가 같음
+ * - round-robin이 켜져 있으면 그 사이 라운드도 역할 순서대로 한 명씩 질문
+ * 그 외 라운드는 LLM 사회자가 결정합니다.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.moderator.strategy", havingValue = "rules", matchIfMissing = true)
+public class RuleBasedModeratorStrategy implements ModeratorStrategy {
+
+    @Value("${chat.moderator.rules.end-at-progress:0.8}")
+    private double endAtProgress;
+
+    @Value("${chat.moderator.rules.round-robin:false}")
+    private boolean roundRobin;
+
+    @Override
+    public Optional<ModeratorResponseDTO> decide(Round round) {
+        List<String> promptKeys = round.promptKeys();
+        if (promptKeys == null || promptKeys.isEmpty()) {
+            return Optional.empty();
+        }
+        if (round.round() == 1) {
+            return Optional.of(request(promptKeys, round.question()));
+        }
+        if (round.maxRounds() > 0 && (double) round.round() / round.maxRounds() >= endAtProgress) {
+            ModeratorResponseDTO decision = new ModeratorResponseDTO();
+            decision.setRequest(List.of());
+            decision.setShouldEnd(true);
+            return Optional.of(decision);
+        }
+        if (roundRobin) {
+            String next = promptKeys.get((round.round() - 2) % promptKeys.size());
+            return Optional.of(request(List.of(next), round.question()));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public String name() {
+        return "rules";
+    }
+
+    private ModeratorResponseDTO request(List<String> roleKeys, String question) {
+        ModeratorResponseDTO decision = new ModeratorResponseDTO();
+        decision.setRequest(roleKeys.stream()
+                .map(roleKey -> {
+                    ModeratorResponseDTO.RequestItem item = new ModeratorResponseDTO.RequestItem();
+                    item.setRoleKey(roleKey);
+                    item.setMessages(question);
+                    return item;
+                })
+                .toList());
+        decision.setShouldEnd(false);
+        return decision;
+    }
+}
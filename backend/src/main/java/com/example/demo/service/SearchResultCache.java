@@ -0,0 +1,183 @@
+package com.example.demo.service;
+
+import com.example.demo.service.GoogleCustomSearchService.SearchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Google Custom Search 결과 캐시.
+ * - 정규화한 검색어와 결과 수를 키로 TTL 동안 결과를 재사용
+ * - 같은 키의 동시 요청은 진행 중인 하나의 API 호출을 함께 기다림 (single-flight)
+ * - 일일 쿼터가 거의 소진되면 만료된(stale) 결과라도 반환하여 쿼터를 아낌
+ */
+@Slf4j
+@Component
+public class SearchResultCache {
+    // Custom Search API 쿼터는 태평양 시간 자정에 초기화됨
+    private static final ZoneId QUOTA_ZONE = ZoneId.of("America/Los_Angeles");
+
+    @Value("${google.custom-search.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${google.custom-search.cache.max-entries:500}")
+    private int maxEntries;
+
+    // 쿼터 절약 모드에서 만료 후에도 반환할 수 있는 최대 기간
+    @Value("${google.custom-search.cache.stale-max-age-seconds:86400}")
+    private long staleMaxAgeSeconds;
+
+    @Value("${google.custom-search.daily-quota:100}")
+    private int dailyQuota;
+
+    // 일일 쿼터 대비 사용률이 이 값 이상이면 만료된 결과를 우선 반환
+    @Value("${google.custom-search.quota-stale-threshold:0.9}")
+    private double quotaStaleThreshold;
+
+    private final Map<String, CachedResults> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResults> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger callsToday = new AtomicInteger();
+    private volatile LocalDate quotaDate = LocalDate.now(QUOTA_ZONE);
+
+    /**
+     * 캐시된 결과 또는 loader가 시작한 API 호출 결과를 반환합니다.
+     * 호출자마다 별도의 future를 받으므로 한 호출자가 취소해도 다른 대기자에게는 영향이 없고,
+     * 모든 대기자가 취소하면 진행 중인 API 호출도 취소됩니다.
+     */
+    public CompletableFuture<List<SearchResult>> getAsync(String query, int numResults,
+                                                          Supplier<CompletableFuture<List<SearchResult>>> loader) {
+        String key = normalize(query) + "|" + numResults;
+        long now = System.currentTimeMillis();
+
+        CachedResults cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null) {
+            long age = now - cached.fetchedAt;
+            if (age <= ttlSeconds * 1000) {
+                log.debug("검색 캐시 적중: {}", query);
+                return CompletableFuture.completedFuture(cached.results);
+            }
+            if (isQuotaNearlyExhausted() && age <= (ttlSeconds + staleMaxAgeSeconds) * 1000) {
+                log.debug("일일 쿼터 {}/{} 사용, 만료된 결과를 반환합니다: {}", callsToday.get(), dailyQuota, query);
+                return CompletableFuture.completedFuture(cached.results);
+            }
+        }
+
+        // 같은 검색어의 API 호출이 진행 중이면 그 결과를 함께 사용
+        InFlight created = new InFlight();
+        InFlight existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            log.debug("진행 중인 동일 검색 결과를 기다립니다: {}", query);
+            return existing.attach();
+        }
+
+        CompletableFuture<List<SearchResult>> view = created.attach();
+        recordApiCall();
+        CompletableFuture<List<SearchResult>> call;
+        try {
+            call = loader.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((results, ex) -> {
+            inFlight.remove(key, created);
+            // 오류로 인한 빈 결과는 캐시하지 않음
+            if (ex == null && !results.isEmpty()) {
+                synchronized (entries) {
+                    entries.put(key, new CachedResults(List.copyOf(results), System.currentTimeMillis()));
+                }
+            }
+        });
+        created.bind(call);
+        return view;
+    }
+
+    private boolean isQuotaNearlyExhausted() {
+        rollQuotaDate();
+        return dailyQuota > 0 && callsToday.get() >= dailyQuota * quotaStaleThreshold;
+    }
+
+    private void recordApiCall() {
+        rollQuotaDate();
+        callsToday.incrementAndGet();
+    }
+
+    private void rollQuotaDate() {
+        LocalDate today = LocalDate.now(QUOTA_ZONE);
+        if (!today.equals(quotaDate)) {
+            synchronized (this) {
+                if (!today.equals(quotaDate)) {
+                    quotaDate = today;
+                    callsToday.set(0);
+                }
+            }
+        }
+    }
+
+    // 대소문자와 연속 공백 차이는 같은 검색어로 취급
+    private String normalize(String query) {
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // 진행 중인 API 호출과 그 결과를 기다리는 호출자 수
+    private static class InFlight {
+        private final CompletableFuture<List<SearchResult>> shared = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+        private volatile CompletableFuture<List<SearchResult>> call;
+
+        CompletableFuture<List<SearchResult>> attach() {
+            waiters.incrementAndGet();
+            CompletableFuture<List<SearchResult>> view = shared.copy();
+            view.whenComplete((results, ex) -> {
+                // 마지막 대기자까지 취소/시간 초과되면 실제 호출도 취소
+                if (ex != null && !shared.isDone() && waiters.decrementAndGet() == 0 && call != null) {
+                    call.cancel(true);
+                }
+            });
+            return view;
+        }
+
+        void bind(CompletableFuture<List<SearchResult>> call) {
+            this.call = call;
+            call.whenComplete((results, ex) -> {
+                if (ex != null) {
+                    shared.completeExceptionally(ex);
+                } else {
+                    shared.complete(results);
+                }
+            });
+            // 바인딩 전에 모든 대기자가 이미 취소한 경우
+            if (waiters.get() == 0 && !call.isDone()) {
+                call.cancel(true);
+            }
+        }
+    }
+
+    private static class CachedResults {
+        private final List<SearchResult> results;
+        private final long fetchedAt;
+
+        CachedResults(List<SearchResult> results, long fetchedAt) {
+            this.results = results;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 외부 토크나이저 없이 프롬프트 토큰 수를 근사합니다.
+ * 영문/숫자는 평균 4자당 1토큰, 한글 등 비 ASCII 문자는 1자당 1토큰으로 계산하여 약간 보수적으로 추정합니다.
+ */
+@Component
+public class TokenEstimator {
+    // 메시지마다 role, 구분자 등으로 추가되는 토큰
+    private static final int MESSAGE_OVERHEAD = 4;
+
+    public int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) {
+                ascii++;
+            } else {
+                other++;
+            }
+        }
+        return (ascii + 3) / 4 + other;
+    }
+
+    public int estimateMessage(Map<String, String> message) {
+        return estimate(message.get("content")) + MESSAGE_OVERHEAD;
+    }
+
+    public int estimateMessages(List<Map<String, String>> messages) {
+        int total = 0;
+        for (Map<String, String> message : messages) {
+            total += estimateMessage(message);
+        }
+        return total;
+    }
+
+    // 추정 토큰 수가 maxTokens를 넘지 않도록 텍스트 앞부분만 남김
+    public String truncate(String text, int maxTokens) {
+        if (text == null || estimate(text) <= maxTokens) {
+            return text;
+        }
+        int ascii = 0;
+        int other = 0;
+        int end = 0;
+        while (end < text.length()) {
+            if (text.charAt(end) < 128) {
+                ascii++;
+            } else {
+                other++;
+            }
+            if ((ascii + 3) / 4 + other > maxTokens) {
+                break;
+            }
+            end++;
+        }
+        return text.substring(0, end) + "...(생략)";
+    }
+}
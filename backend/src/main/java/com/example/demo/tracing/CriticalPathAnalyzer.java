@@ -0,0 +1,114 @@
+package com.example.demo.tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 토론 트레이스의 임계 경로(토론 전체 시간을 결정한 스팬들의 연쇄) 분석.
+ * 루트 스팬의 끝에서 시작해 그 시점 이전에 가장 늦게 끝난 하위 스팬을 따라 거슬러 올라가며,
+ * 어떤 하위 스팬에도 덮이지 않은 구간은 상위 스팬 자신의 시간(대기, 파싱 등)으로 계산합니다.
+ * 병렬 전문가 호출 중에서는 가장 늦게 끝난 호출만 경로에 포함됩니다.
+ *
+ * 실행 중인 서버는 /traces/{traceId}, 파일은 ./gradlew traceReport -PtraceFile=traces.ndjson [-PtraceId=...] (src/loadTest의 TraceReport)
+ */
+public final class CriticalPathAnalyzer {
+
+    private CriticalPathAnalyzer() {
+    }
+
+    public static CriticalPath analyze(List<SpanData> spans) {
+        if (spans.isEmpty()) {
+            throw new IllegalArgumentException("분석할 스팬이 없습니다.");
+        }
+        Map<String, SpanData> byId = new HashMap<>();
+        for (SpanData span : spans) {
+            byId.put(span.spanId(), span);
+        }
+        Map<String, List<SpanData>> children = new HashMap<>();
+        List<SpanData> roots = new ArrayList<>();
+        for (SpanData span : spans) {
+            if (span.parentSpanId() == null || !byId.containsKey(span.parentSpanId())) {
+                roots.add(span);
+            } else {
+                children.computeIfAbsent(span.parentSpanId(), id -> new ArrayList<>()).add(span);
+            }
+        }
+        // 루트 스팬이 아직 끝나지 않았으면 가장 긴 최상위 스팬을 기준으로 분석
+        SpanData root = roots.stream()
+                .max(Comparator.comparing((SpanData span) -> span.parentSpanId() == null)
+                        .thenComparingLong(SpanData::durationMicros))
+                .orElseThrow();
+
+        List<Segment> segments = new ArrayList<>();
+        walk(root, root.endEpochMicros(), children, segments, root.startEpochMicros());
+        Collections.reverse(segments);
+
+        Map<String, Long> totals = new HashMap<>();
+        for (Segment segment : segments) {
+            totals.merge(segment.label(), segment.durationMicros(), Long::sum);
+        }
+        Map<String, Long> byLabel = new LinkedHashMap<>();
+        totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> byLabel.put(entry.getKey(), entry.getValue()));
+
+        return new CriticalPath(root.traceId(), root.durationMicros(), segments, byLabel);
+    }
+
+    // span의 [시작, cursorEnd] 구간에서 임계 경로를 뒤에서부터 수집
+    private static void walk(SpanData span, long cursorEnd, Map<String, List<SpanData>> children,
+                             List<Segment> out, long origin) {
+        long cursor = Math.min(span.endEpochMicros(), cursorEnd);
+        List<SpanData> remaining = new ArrayList<>(children.getOrDefault(span.spanId(), List.of()));
+        while (true) {
+            SpanData next = null;
+            long nextEnd = Long.MIN_VALUE;
+            for (SpanData child : remaining) {
+                if (child.startEpochMicros() >= cursor) {
+                    continue;
+                }
+                long end = Math.min(child.endEpochMicros(), cursor);
+                if (end > nextEnd) {
+                    next = child;
+                    nextEnd = end;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            remaining.remove(next);
+            addSelfTime(span, nextEnd, cursor, out, origin);
+            walk(next, nextEnd, children, out, origin);
+            cursor = Math.max(next.startEpochMicros(), span.startEpochMicros());
+        }
+        addSelfTime(span, span.startEpochMicros(), cursor, out, origin);
+    }
+
+    private static void addSelfTime(SpanData span, long from, long to, List<Segment> out, long origin) {
+        if (to > from) {
+            out.add(new Segment(span.spanId(), span.name(), label(span), from - origin, to - from));
+        }
+    }
+
+    // 역할이 있는 스팬은 역할별로 구분 (예: llm.call[critic])
+    private static String label(SpanData span) {
+        Object role = span.attributes() != null ? span.attributes().get("role") : null;
+        return role != null ? span.name() + "[" + role + "]" : span.name();
+    }
+
+    /**
+     * @param totalMicros 루트 스팬 길이
+     * @param segments    시간 순서의 임계 경로 구간 (offset은 루트 시작 기준)
+     * @param byLabel     스팬 종류별 임계 경로 점유 시간 (큰 순서)
+     */
+    public record CriticalPath(String traceId, long totalMicros, List<Segment> segments, Map<String, Long> byLabel) {
+    }
+
+    public record Segment(String spanId, String name, String label, long startOffsetMicros, long durationMicros) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * 토론 단위 추적기.
+ * 현재 스팬은 스레드 로컬로 관리하며, gptExecutor/debateExecutor 작업에는 TraceContextTaskDecorator가 전달합니다.
+ * 종료된 스팬은 등록된 모든 SpanExporter 빈으로 내보냅니다 (chat.tracing.enabled=false이면 기록하지 않음).
+ */
+@Slf4j
+@Component
+public class DebateTracer {
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final List<SpanExporter> exporters;
+    private final boolean enabled;
+
+    public DebateTracer(List<SpanExporter> exporters, @Value("${chat.tracing.enabled:true}") boolean enabled) {
+        this.exporters = exporters;
+        this.enabled = enabled;
+        log.info("토론 추적: {} (exporters: {})", enabled ? "사용" : "사용 안 함",
+                exporters.stream().map(SpanExporter::name).toList());
+    }
+
+    // 토론 ID를 트레이스 ID로 사용하는 루트 스팬 (로그의 debateId와 같은 값)
+    public Span startRootSpan(String name, String traceId) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        return new Span(this, traceId, newSpanId(), null, name);
+    }
+
+    // 현재 스팬의 하위 스팬 (현재 스팬이 없으면 새 트레이스의 루트 스팬)
+    public Span startSpan(String name) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        Span parent = CURRENT.get();
+        if (parent == null || !parent.isRecording()) {
+            return new Span(this, newSpanId() + newSpanId(), newSpanId(), null, name);
+        }
+        return new Span(this, parent.getTraceId(), newSpanId(), parent.getSpanId(), name);
+    }
+
+    // 동기 작업을 하위 스팬으로 감싸 실행
+    public <T> T inSpan(String name, Supplier<T> work) {
+        Span span = startSpan(name);
+        try (Scope scope = span.makeCurrent()) {
+            return work.get();
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    public void inSpan(String name, Runnable work) {
+        inSpan(name, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // 현재 스레드의 스팬 (없으면 기록하지 않는 스팬)
+    public static Span currentSpan() {
+        Span span = CURRENT.get();
+        return span != null ? span : Span.NOOP;
+    }
+
+    static Scope makeCurrent(Span span) {
+        Span previous = CURRENT.get();
+        CURRENT.set(span);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    void export(SpanData span) {
+        for (SpanExporter exporter : exporters) {
+            try {
+                exporter.export(span);
+            } catch (RuntimeException e) {
+                log.warn("스팬 내보내기 실패 ({}): {}", exporter.name(), e.getMessage());
+            }
+        }
+    }
+
+    private static String newSpanId() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+    }
+
+    // 현재 스팬 지정을 해제하는 핸들 (예외를 던지지 않는 AutoCloseable)
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
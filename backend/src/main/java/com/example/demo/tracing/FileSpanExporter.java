@@ -0,0 +1,88 @@
+package com.example.demo.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 스팬을 한 줄에 하나씩 JSON(NDJSON)으로 파일에 추가하는 내보내기.
+ * 서버 밖에서 CriticalPathAnalyzer(./gradlew traceReport)나 jq로 분석할 수 있습니다.
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter, AutoCloseable {
+
+    private final ObjectMapper objectMapper;
+    private final BufferedWriter writer;
+
+    public FileSpanExporter(Path path, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("스팬 파일을 열 수 없습니다: " + path, e);
+        }
+        log.info("스팬을 파일로 내보냅니다: {}", path.toAbsolutePath());
+    }
+
+    @Override
+    public void export(SpanData span) {
+        try {
+            String line = objectMapper.writeValueAsString(span);
+            synchronized (writer) {
+                writer.write(line);
+                writer.newLine();
+                // 루트 스팬이 끝나면 토론 하나의 기록이 완성되므로 디스크로 내보냄
+                if (span.parentSpanId() == null) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("스팬 파일 기록 실패: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writer) {
+            writer.close();
+        }
+    }
+
+    // NDJSON 파일을 트레이스 ID별 스팬 목록으로 읽음 (기록 순서 유지)
+    public static Map<String, List<SpanData>> readTraces(Path path, ObjectMapper objectMapper) throws IOException {
+        Map<String, List<SpanData>> traces = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                SpanData span = objectMapper.readValue(line, SpanData.class);
+                traces.computeIfAbsent(span.traceId(), id -> new ArrayList<>()).add(span);
+            }
+        }
+        return traces;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 최근 토론의 스팬을 메모리에 보관하는 내보내기 (/api/traces 조회와 임계 경로 분석에 사용).
+ * 오래된 토론부터 제거하여 최대 max-traces 개의 트레이스만 유지합니다.
+ */
+@Component
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final int maxTraces;
+    private final Map<String, List<SpanData>> traces;
+
+    public InMemorySpanExporter(@Value("${chat.tracing.memory.max-traces:200}") int maxTraces) {
+        this.maxTraces = maxTraces;
+        this.traces = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<SpanData>> eldest) {
+                return size() > InMemorySpanExporter.this.maxTraces;
+            }
+        };
+    }
+
+    @Override
+    public void export(SpanData span) {
+        synchronized (traces) {
+            traces.computeIfAbsent(span.traceId(), id -> new ArrayList<>()).add(span);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    public Optional<List<SpanData>> getTrace(String traceId) {
+        synchronized (traces) {
+            List<SpanData> spans = traces.get(traceId);
+            return spans == null ? Optional.empty() : Optional.of(List.copyOf(spans));
+        }
+    }
+
+    // 루트 스팬이 종료된 트레이스 중 조건에 맞는 루트 스팬 목록 (최근 순)
+    public List<SpanData> findRootSpans(String attribute, Object value) {
+        List<SpanData> roots = new ArrayList<>();
+        synchronized (traces) {
+            for (List<SpanData> spans : traces.values()) {
+                for (SpanData span : spans) {
+                    if (span.parentSpanId() == null && value.equals(span.attributes().get(attribute))) {
+                        roots.add(span);
+                    }
+                }
+            }
+        }
+        roots.sort((a, b) -> Long.compare(b.startEpochMicros(), a.startEpochMicros()));
+        return roots;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.tracing;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 토론 내 하나의 작업 구간 (토론, 라운드, LLM 호출, 검색, 저장 등).
+ * 시작한 스레드와 다른 스레드에서 end()를 호출해도 되며, end()는 한 번만 내보냅니다.
+ * try-with-resources로 사용할 수 있고, 현재 스팬으로 지정하려면 makeCurrent()를 함께 사용합니다.
+ */
+public class Span implements AutoCloseable {
+    // 추적이 비활성화되었을 때 반환되는 스팬 (속성 기록과 내보내기를 모두 생략)
+    static final Span NOOP = new Span(null, null, null, null, null);
+
+    private final DebateTracer tracer;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final long startEpochMicros;
+    private final long startNanos;
+    private final String thread;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private final AtomicBoolean ended = new AtomicBoolean();
+    private volatile String status = "ok";
+
+    Span(DebateTracer tracer, String traceId, String spanId, String parentSpanId, String name) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        Instant now = Instant.now();
+        this.startEpochMicros = now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000;
+        this.startNanos = System.nanoTime();
+        this.thread = Thread.currentThread().getName();
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (tracer == null || value == null) {
+            return this;
+        }
+        synchronized (attributes) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    // 상위 스팬에서 기록한 속성 조회 (예: 라운드 번호)
+    public Object getAttribute(String key) {
+        synchronized (attributes) {
+            return attributes.get(key);
+        }
+    }
+
+    public Span recordError(Throwable error) {
+        if (tracer == null) {
+            return this;
+        }
+        status = "error";
+        return setAttribute("error", error.getClass().getSimpleName() + ": " + error.getMessage());
+    }
+
+    public Span setStatus(String status) {
+        this.status = status;
+        return this;
+    }
+
+    // 이 스팬을 현재 스레드의 상위 스팬으로 지정 (반환된 Scope를 닫으면 이전 스팬으로 복원)
+    public DebateTracer.Scope makeCurrent() {
+        return DebateTracer.makeCurrent(this);
+    }
+
+    public void end() {
+        if (tracer == null || !ended.compareAndSet(false, true)) {
+            return;
+        }
+        long durationMicros = (System.nanoTime() - startNanos) / 1_000;
+        Map<String, Object> snapshot;
+        synchronized (attributes) {
+            snapshot = new LinkedHashMap<>(attributes);
+        }
+        tracer.export(new SpanData(traceId, spanId, parentSpanId, name, startEpochMicros, durationMicros,
+                status, thread, snapshot));
+    }
+
+    @Override
+    public void close() {
+        end();
+    }
+
+    public boolean isRecording() {
+        return tracer != null;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
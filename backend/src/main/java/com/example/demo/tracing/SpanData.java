@@ -0,0 +1,16 @@
+package com.example.demo.tracing;
+
+import java.util.Map;
+
+/**
+ * 종료된 스팬의 불변 스냅샷. 내보내기(SpanExporter)와 임계 경로 분석의 입력으로 사용됩니다.
+ * 시간은 epoch 기준 마이크로초이며, 루트 스팬은 parentSpanId가 null입니다.
+ */
+public record SpanData(String traceId, String spanId, String parentSpanId, String name,
+                       long startEpochMicros, long durationMicros, String status, String thread,
+                       Map<String, Object> attributes) {
+
+    public long endEpochMicros() {
+        return startEpochMicros + durationMicros;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.tracing;
+
+/**
+ * 종료된 스팬을 내보내는 확장 지점.
+ * 이 인터페이스를 구현한 빈은 모두 DebateTracer에 등록되며, 스팬이 끝나는 스레드에서 호출되므로 빠르게 반환해야 합니다.
+ */
+public interface SpanExporter {
+
+    void export(SpanData span);
+
+    String name();
+}
@@ -0,0 +1,22 @@
+package com.example.demo.tracing;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 작업을 제출한 스레드의 현재 스팬을 실행 스레드로 전달하여 전문가 호출이 라운드 스팬의 하위로 기록되게 합니다.
+ */
+public class TraceContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Span span = DebateTracer.currentSpan();
+        if (!span.isRecording()) {
+            return runnable;
+        }
+        return () -> {
+            try (DebateTracer.Scope scope = span.makeCurrent()) {
+                runnable.run();
+            }
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * LLM/검색 응답 원문 같은 큰 페이로드를 DEBUG 로그에 남길 때 일부 호출만 골라 잘라서 기록합니다.
+ * 호출 측은 log.isDebugEnabled()를 먼저 확인하여 DEBUG가 꺼져 있으면 문자열을 만들지 않아야 합니다.
+ */
+@Component
+public class PayloadLogSampler {
+    // 원문을 기록할 호출 비율 (0.0 ~ 1.0)
+    @Value("${chat.logging.payload-sample-rate:0.05}")
+    private double sampleRate;
+
+    // 기록할 원문의 최대 글자 수
+    @Value("${chat.logging.payload-max-chars:2000}")
+    private int maxChars;
+
+    public boolean sample() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    public String truncate(String payload) {
+        if (payload == null || payload.length() <= maxChars) {
+            return payload;
+        }
+        return payload.substring(0, maxChars) + "...(" + (payload.length() - maxChars) + "자 생략)";
+    }
+}
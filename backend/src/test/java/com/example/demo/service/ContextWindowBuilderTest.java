@@ -0,0 +1,115 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ContextBudgetProperties;
+import com.example.demo.entity.ChatEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContextWindowBuilderTest {
+
+    private final TokenEstimator tokenEstimator = new TokenEstimator();
+    private ContextBudgetProperties properties;
+    private ContextWindowBuilder builder;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ContextBudgetProperties();
+        properties.setDefaultBudget(200);
+        properties.setDigestMaxTokens(60);
+        properties.setDigestSnippetChars(10);
+        properties.setSummaryReserveTokens(0);
+        builder = new ContextWindowBuilder(properties, tokenEstimator);
+    }
+
+    @Test
+    void returnsAllTurnsWhenWithinBudget() {
+        List<ChatEntity> turns = List.of(turn("user", "질문"), turn("critic", "답변"));
+
+        List<Map<String, String>> result = builder.fitHistory("critic", List.of(), turns);
+
+        assertThat(result).extracting(message -> message.get("content")).containsExactly("질문", "답변");
+        assertThat(result).extracting(message -> message.get("role")).containsExactly("user", "assistant");
+    }
+
+    @Test
+    void keepsLastTurnOfEachRoleAndFoldsDroppedTurnsIntoDigest() {
+        List<ChatEntity> turns = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            turns.add(turn("critic", "발언" + i + "가".repeat(30)));
+        }
+        turns.add(turn("analyst", "분석"));
+
+        List<Map<String, String>> result = builder.fitHistory("critic", List.of(), turns);
+
+        assertThat(result.get(0).get("content")).startsWith("[이전 발언 요약]");
+        List<String> contents = result.stream().map(message -> message.get("content")).toList();
+        assertThat(contents).contains("분석");
+        assertThat(contents).anyMatch(content -> content.startsWith("발언9"));
+        int kept = tokenEstimator.estimateMessages(result);
+        assertThat(kept).isLessThanOrEqualTo(200);
+    }
+
+    @Test
+    void digestPrefersTurnsNearestTheRetainedWindow() {
+        List<ChatEntity> turns = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            turns.add(turn("critic", "발언" + i + "가".repeat(30)));
+        }
+
+        List<Map<String, String>> result = builder.fitHistory("critic", List.of(), turns);
+        String digest = result.get(0).get("content");
+
+        // 발언6~9가 유지되고, 다이제스트는 그 바로 앞의 발언부터 채움 (가장 오래된 발언은 빠짐)
+        assertThat(result.get(1).get("content")).startsWith("발언6");
+        assertThat(digest).contains("발언5").doesNotContain("발언0");
+        if (digest.contains("발언4")) {
+            assertThat(digest.indexOf("발언4")).isLessThan(digest.indexOf("발언5"));
+        }
+    }
+
+    @Test
+    void truncatesRequiredTurnsWhenTheyAloneExceedBudget() {
+        List<ChatEntity> turns = List.of(turn("critic", "가".repeat(500)), turn("analyst", "나".repeat(500)));
+
+        List<Map<String, String>> result = builder.fitHistory("critic", List.of(), turns);
+
+        assertThat(result).hasSize(2);
+        assertThat(result).allMatch(message -> message.get("content").endsWith("...(생략)"));
+    }
+
+    @Test
+    void splitsTurnsIntoConsecutiveChunksWithinBudget() {
+        List<ChatEntity> turns = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            turns.add(turn("critic", "가".repeat(60)));
+        }
+
+        List<List<ChatEntity>> chunks = builder.split("summarizer", List.of(), turns);
+
+        assertThat(chunks).hasSize(3);
+        assertThat(chunks.stream().flatMap(List::stream).toList()).containsExactlyElementsOf(turns);
+        for (List<ChatEntity> chunk : chunks) {
+            assertThat(chunk.size() * 64).isLessThanOrEqualTo(200);
+        }
+    }
+
+    @Test
+    void splitPutsOversizedTurnInItsOwnChunk() {
+        List<ChatEntity> turns = List.of(turn("critic", "가".repeat(10)), turn("critic", "나".repeat(1000)),
+                turn("critic", "다".repeat(10)));
+
+        List<List<ChatEntity>> chunks = builder.split("summarizer", List.of(), turns);
+
+        assertThat(chunks).hasSize(3);
+    }
+
+    private static ChatEntity turn(String sender, String message) {
+        return ChatEntity.builder().sender(sender).message(message).build();
+    }
+}
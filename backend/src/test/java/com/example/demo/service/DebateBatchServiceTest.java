@@ -0,0 +1,89 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BatchStatusDTO;
+import com.example.demo.dto.ChatRequestDTO;
+import com.example.demo.dto.ChatResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DebateBatchServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    @TempDir
+    Path batchDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ChatService chatService = mock(ChatService.class);
+    private DebateBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        // 배치 질문을 호출 스레드에서 바로 실행
+        service = new DebateBatchService(chatService, Runnable::run, objectMapper,
+                new DebateMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "batchDir", batchDir);
+        ReflectionTestUtils.setField(service, "maxQuestions", 1000);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+    }
+
+    @Test
+    void resumeRetriesQuestionsThatFailedBeforeRestart() throws IOException {
+        writeBatch(List.of(
+                new DebateBatchService.Result(0, "q0", 1L, "요약", null, 1, 10, "t1"),
+                new DebateBatchService.Result(1, "q1", 2L, null, "429", 1, 10, "t2")));
+        when(chatService.askQuestion(any(ChatRequestDTO.class), any())).thenReturn(new ChatResponseDTO("요약"));
+
+        service.resume();
+
+        verify(chatService, times(1)).askQuestion(any(ChatRequestDTO.class), any());
+        BatchStatusDTO status = service.getStatus("b1", USER_ID).orElseThrow();
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getCompleted()).isEqualTo(2);
+        assertThat(status.getFailed()).isZero();
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() throws IOException {
+        writeBatch(List.of(new DebateBatchService.Result(0, "q0", 1L, "요약", null, 1, 10, "t1")));
+        when(chatService.askQuestion(any(ChatRequestDTO.class), any())).thenThrow(new IllegalStateException("429"));
+
+        service.resume();
+
+        // 이전 실패 기록이 없으므로 3번 실행한 뒤 실패로 확정
+        verify(chatService, times(3)).askQuestion(any(ChatRequestDTO.class), any());
+        BatchStatusDTO status = service.getStatus("b1", USER_ID).orElseThrow();
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getCompleted()).isEqualTo(1);
+        assertThat(status.getFailed()).isEqualTo(1);
+        assertThat(Files.readAllLines(batchDir.resolve("b1").resolve("results.ndjson"))).hasSize(4);
+    }
+
+    private void writeBatch(List<DebateBatchService.Result> results) throws IOException {
+        Path dir = Files.createDirectories(batchDir.resolve("b1"));
+        objectMapper.writeValue(dir.resolve("batch.json").toFile(),
+                new DebateBatchService.Manifest("b1", USER_ID, List.of("q0", "q1"), List.of("critic"), 2, "t0"));
+        StringBuilder lines = new StringBuilder();
+        for (DebateBatchService.Result result : results) {
+            lines.append(objectMapper.writeValueAsString(result)).append('\n');
+        }
+        Files.writeString(dir.resolve("results.ndjson"), lines, StandardCharsets.UTF_8);
+    }
+}
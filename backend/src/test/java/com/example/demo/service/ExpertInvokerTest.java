@@ -0,0 +1,155 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ChatEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpertInvokerTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicLong delayMs = new AtomicLong();
+    private DebateMetrics metrics;
+    private GptService gptService;
+    private ExpertInvoker invoker;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new DebateMetrics(registry);
+        gptService = new GptService(null, null, metrics, null, null, 64, 0) {
+            @Override
+            public ChatEntity requestGpt(List<Map<String, String>> messages, String senderRole) {
+                try {
+                    Thread.sleep(delayMs.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return ChatEntity.builder().sender(senderRole).message("오류: 취소").build();
+                }
+                return ChatEntity.builder().sender(senderRole).message("답변").tokensUsed(10L).build();
+            }
+        };
+        invoker = invoker(new FairLlmScheduler(executor, metrics, registry, false, 0, 64, 0, 50, 0.25, 16));
+    }
+
+    private ExpertInvoker invoker(FairLlmScheduler scheduler) {
+        ExpertInvoker invoker = new ExpertInvoker(gptService, scheduler, metrics);
+        ReflectionTestUtils.setField(invoker, "latencyWindow", 200);
+        ReflectionTestUtils.setField(invoker, "minSamples", 1);
+        ReflectionTestUtils.setField(invoker, "defaultTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(invoker, "minTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(invoker, "maxTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(invoker, "timeoutMultiplier", 2.0);
+        ReflectionTestUtils.setField(invoker, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(invoker, "hedgePercentile", 0.95);
+        ReflectionTestUtils.setField(invoker, "hedgeMinDelayMs", 20L);
+        ReflectionTestUtils.setField(invoker, "hedgeBudgetRatio", 0.5);
+        ReflectionTestUtils.setField(invoker, "hedgeBudgetBurst", 1.0);
+        return invoker;
+    }
+
+    @AfterEach
+    void tearDown() {
+        invoker.shutdown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void doesNotHedgeOrChangeTimeoutWithoutSamples() {
+        assertThat(invoker.hedgeDelayMs("critic")).isEqualTo(-1);
+        assertThat(invoker.timeoutMs("critic")).isEqualTo(5000);
+    }
+
+    @Test
+    void hedgesOnlyWithinBudget() {
+        // 가장 빠른 표본 기준으로 헤지 지연을 최소값(20ms)에 고정. 첫 호출로 헤지 허용량 0.5 적립
+        ReflectionTestUtils.setField(invoker, "hedgePercentile", 0.0);
+        invoke();
+        delayMs.set(200);
+
+        invoke(); // 허용량 1.0 → 헤지
+        invoke(); // 허용량 0.5 → 거부
+        invoke(); // 허용량 1.0 → 헤지
+
+        assertThat(hedges("fired")).isEqualTo(2);
+        assertThat(hedges("denied")).isEqualTo(1);
+    }
+
+    @Test
+    void disabledHedgingNeverFires() {
+        ReflectionTestUtils.setField(invoker, "hedgeEnabled", false);
+        invoke();
+        delayMs.set(100);
+
+        invoke();
+
+        assertThat(invoker.hedgeDelayMs("critic")).isEqualTo(-1);
+        assertThat(registry.find("debate.expert.hedges").counters()).isEmpty();
+    }
+
+    @Test
+    void timedOutCallsWidenTimeoutAndHedgeDelay() throws InterruptedException {
+        ReflectionTestUtils.setField(invoker, "hedgeEnabled", false);
+        ReflectionTestUtils.setField(invoker, "defaultTimeoutMs", 100L);
+        ReflectionTestUtils.setField(invoker, "minTimeoutMs", 50L);
+        delayMs.set(1000);
+
+        assertThatThrownBy(() -> invoker.invoke("critic", () -> List.of()).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+
+        // 시간 초과 값(100ms)이 표본으로 기록되어 다음 시간 초과는 p99 × 2
+        awaitTimeoutMs(200);
+        ReflectionTestUtils.setField(invoker, "hedgeEnabled", true);
+        assertThat(invoker.hedgeDelayMs("critic")).isEqualTo(100);
+    }
+
+    @Test
+    void schedulerQueueWaitDoesNotCountTowardsTimeout() {
+        // 동시 실행 1개: 두 번째 호출은 첫 호출이 끝날 때까지(200ms) 대기열에서 기다린 뒤 200ms 동안 실행
+        invoker.shutdown();
+        invoker = invoker(new FairLlmScheduler(executor, metrics, registry, true, 1, 64, 0, 50, 0.25, 16));
+        ReflectionTestUtils.setField(invoker, "hedgeEnabled", false);
+        ReflectionTestUtils.setField(invoker, "defaultTimeoutMs", 350L);
+        delayMs.set(200);
+
+        CompletableFuture<ChatEntity> first = invoker.invoke("critic", () -> List.of());
+        CompletableFuture<ChatEntity> second = invoker.invoke("critic", () -> List.of());
+
+        assertThat(first.join().getMessage()).isEqualTo("답변");
+        assertThat(second.join().getMessage()).isEqualTo("답변");
+    }
+
+    private void awaitTimeoutMs(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (invoker.timeoutMs("critic") != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(invoker.timeoutMs("critic")).isEqualTo(expected);
+    }
+
+    private void invoke() {
+        ChatEntity answer = invoker.invoke("critic", () -> List.of()).join();
+        assertThat(answer.getMessage()).isEqualTo("답변");
+    }
+
+    private double hedges(String result) {
+        return registry.find("debate.expert.hedges").tag("result", result).counters().stream()
+                .mapToDouble(counter -> counter.count()).sum();
+    }
+}
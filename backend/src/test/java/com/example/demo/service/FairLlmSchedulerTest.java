@@ -0,0 +1,261 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FairLlmSchedulerTest {
+
+    // 제출된 작업을 바로 실행하지 않고 모아 두는 실행기. runNext()로 하나씩 완료시킴
+    private final List<Runnable> submitted = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> ran = Collections.synchronizedList(new ArrayList<>());
+    private final Executor executor = submitted::add;
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void letsAnIdleSystemRunAllOfOneMembersTasks() {
+        FairLlmScheduler scheduler = scheduler(true, 10, 2, 50);
+
+        for (int i = 1; i <= 5; i++) {
+            submit(scheduler, "a", "a" + i);
+        }
+
+        // 다른 회원의 작업이 없으면 회원당 제한을 넘어도 바로 실행
+        assertThat(submitted).hasSize(5);
+    }
+
+    @Test
+    void capsConcurrentExpertTasksPerMemberWhenOthersAreWaiting() {
+        FairLlmScheduler scheduler = scheduler(true, 2, 1, 50);
+        submit(scheduler, "a", "a1");
+        submit(scheduler, "b", "b1");
+        submit(scheduler, "a", "a2");
+        submit(scheduler, "b", "b2");
+
+        // 가상 시간이 같으면 먼저 온 a2 차례지만, a는 이미 제한만큼 실행 중이므로 b2가 슬롯을 받음
+        run(1);
+        assertThat(ran).containsExactly("b1");
+        assertThat(submitted).hasSize(2);
+        run(1);
+
+        drain();
+        assertThat(ran).containsExactly("b1", "b2", "a1", "a2");
+    }
+
+    @Test
+    void interleavesMembersByVirtualTime() {
+        FairLlmScheduler scheduler = scheduler(true, 2, 2, 50);
+
+        for (int i = 1; i <= 4; i++) {
+            submit(scheduler, "a", "a" + i);
+        }
+        submit(scheduler, "b", "b1");
+        submit(scheduler, "b", "b2");
+
+        // 먼저 몰아서 제출한 회원 a가 뒤에 온 회원 b의 작업을 모두 밀어내지 않음
+        drain();
+        assertThat(ran).containsExactly("a1", "a2", "b1", "a3", "b2", "a4");
+    }
+
+    @Test
+    void moderatorSlotGoesBeforeQueuedExperts() throws Exception {
+        FairLlmScheduler scheduler = scheduler(true, 1, 3, 50);
+        submit(scheduler, "a", "a1");
+        submit(scheduler, "a", "a2");
+
+        AtomicReference<FairLlmScheduler.Slot> slot = new AtomicReference<>();
+        Thread moderator = new Thread(() -> {
+            MDC.put(FairLlmScheduler.MDC_MEMBER_ID, "b");
+            slot.set(scheduler.acquire("moderator"));
+        });
+        moderator.start();
+        awaitWaiting(moderator);
+
+        runNext();
+        moderator.join(TimeUnit.SECONDS.toMillis(5));
+        assertThat(slot.get()).isNotNull();
+        assertThat(submitted).isEmpty();
+
+        slot.get().close();
+        drain();
+        assertThat(ran).containsExactly("a1", "a2");
+    }
+
+    @Test
+    void batchModeratorWaitsBehindInteractiveExperts() throws Exception {
+        FairLlmScheduler scheduler = scheduler(true, 1, 0, 50);
+        submit(scheduler, "a", "a1");
+
+        AtomicReference<FairLlmScheduler.Slot> slot = new AtomicReference<>();
+        Thread moderator = new Thread(() -> {
+            MDC.put(FairLlmScheduler.MDC_MEMBER_ID, "b");
+            MDC.put(LlmRateLimiter.MDC_LANE, LlmRateLimiter.BATCH_LANE);
+            slot.set(scheduler.acquire("moderator"));
+        });
+        moderator.start();
+        awaitWaiting(moderator);
+        submit(scheduler, "c", "c1");
+
+        // 배치 레인의 사회자 호출보다 나중에 온 대화형 전문가 호출이 먼저 슬롯을 받음
+        runNext();
+        assertThat(submitted).hasSize(1);
+        assertThat(slot.get()).isNull();
+
+        runNext();
+        moderator.join(TimeUnit.SECONDS.toMillis(5));
+        assertThat(slot.get()).isNotNull();
+        slot.get().close();
+        assertThat(ran).containsExactly("a1", "c1");
+    }
+
+    @Test
+    void rejectsOnlyTheMemberWhoseQueueIsFull() {
+        FairLlmScheduler scheduler = scheduler(true, 1, 1, 1);
+        submit(scheduler, "a", "a1");
+        submit(scheduler, "a", "a2");
+
+        assertThatThrownBy(() -> submit(scheduler, "a", "a3")).isInstanceOf(RejectedExecutionException.class);
+        submit(scheduler, "b", "b1");
+
+        drain();
+        assertThat(ran).containsExactlyInAnyOrder("a1", "a2", "b1");
+    }
+
+    @Test
+    void dropsTasksCancelledWhileQueued() {
+        FairLlmScheduler scheduler = scheduler(true, 1, 1, 50);
+        submit(scheduler, "a", "a1");
+        MDC.put(FairLlmScheduler.MDC_MEMBER_ID, "a");
+        FutureTask<Void> cancelled = new FutureTask<>(() -> ran.add("a2"), null);
+        scheduler.execute("expert", cancelled);
+        cancelled.cancel(false);
+        submit(scheduler, "a", "a3");
+
+        drain();
+        assertThat(ran).containsExactly("a1", "a3");
+    }
+
+    @Test
+    void passesThroughWhenDisabled() {
+        FairLlmScheduler scheduler = scheduler(false, 1, 1, 1);
+        for (int i = 1; i <= 3; i++) {
+            submit(scheduler, "a", "a" + i);
+        }
+
+        assertThat(submitted).hasSize(3);
+        assertThat(scheduler.acquire("moderator")).isSameAs(FairLlmScheduler.Slot.NONE);
+    }
+
+    @Test
+    void evictsIdleMemberFlows() {
+        FairLlmScheduler scheduler = scheduler(true, 10, 3, 50);
+        submit(scheduler, "a", "a1");
+        submit(scheduler, "b", "b1");
+        assertThat(scheduler.activeFlows()).isEqualTo(2);
+
+        drain();
+        assertThat(scheduler.activeFlows()).isZero();
+        assertThat(registry.get("debate.llm.scheduler.members").gauge().value()).isZero();
+    }
+
+    @Test
+    void tagsMetricsWithMemberBucketsInsteadOfIds() {
+        FairLlmScheduler scheduler = scheduler(true, 1, 1, 50);
+        submit(scheduler, "member-42", "m1");
+        submit(scheduler, "member-42", "m2");
+
+        String bucket = String.valueOf(scheduler.bucketOf("member-42"));
+        assertThat(registry.get("debate.llm.scheduler.queued").tag("bucket", bucket).tag("lane", "interactive")
+                .gauge().value()).isEqualTo(1.0);
+        assertThat(registry.get("debate.llm.scheduler.wait").tag("bucket", bucket).timer().count()).isEqualTo(1);
+        assertThat(registry.getMeters()).noneMatch(meter -> meter.getId().getTag("member") != null);
+
+        // 버킷 게이지는 생성 시 고정 등록되므로 회원이 늘어도 시계열 수가 그대로임
+        long meters = registry.getMeters().size();
+        for (int i = 0; i < 20; i++) {
+            submit(scheduler, "member-" + i, "x" + i);
+        }
+        drain();
+        assertThat(registry.getMeters().stream().map(Meter::getId).filter(id -> id.getName().equals("debate.llm.scheduler.queued")))
+                .hasSize(2 * 4);
+        assertThat(registry.getMeters().size()).isLessThanOrEqualTo(meters + 4);
+    }
+
+    @Test
+    void defaultsGlobalCapToExecutorCapacityAndCallLimit() {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setMaxPoolSize(8);
+        pool.setQueueCapacity(10);
+        assertThat(FairLlmScheduler.defaultMaxInFlight(pool, 64)).isEqualTo(18);
+
+        pool.setQueueCapacity(100);
+        assertThat(FairLlmScheduler.defaultMaxInFlight(pool, 64)).isEqualTo(64);
+
+        // 가상 스레드 실행기처럼 용량 제한이 없으면 동시 호출 한도만 적용
+        assertThat(FairLlmScheduler.defaultMaxInFlight(Runnable::run, 64)).isEqualTo(64);
+    }
+
+    private FairLlmScheduler scheduler(boolean enabled, int maxInFlight, int perMember, int maxQueued) {
+        return new FairLlmScheduler(executor, new DebateMetrics(registry), registry, enabled, maxInFlight, 64,
+                perMember, maxQueued, 0.25, 4);
+    }
+
+    private void submit(FairLlmScheduler scheduler, String member, String name) {
+        MDC.put(FairLlmScheduler.MDC_MEMBER_ID, member);
+        try {
+            scheduler.execute("expert", () -> ran.add(name));
+        } finally {
+            MDC.remove(FairLlmScheduler.MDC_MEMBER_ID);
+        }
+    }
+
+    // 가장 먼저 제출된 작업을 완료 (완료 시 슬롯이 반납되어 다음 작업이 submitted에 추가될 수 있음)
+    private void runNext() {
+        run(0);
+    }
+
+    private void run(int index) {
+        submitted.remove(index).run();
+    }
+
+    private void drain() {
+        while (!submitted.isEmpty()) {
+            runNext();
+        }
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.demo.service;
+
+import com.example.demo.llm.LlmRateLimitException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class LlmRateLimiterTest {
+
+    private static final List<Map<String, String>> MESSAGES = List.of(Map.of("role", "user", "content", "질문"));
+
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void disabledLimiterNeverWaits() throws InterruptedException {
+        LlmRateLimiter limiter = limiter(false, 1, 5000);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.acquire("critic", MESSAGES)).isSameAs(LlmRateLimiter.Permit.NONE);
+        }
+    }
+
+    @Test
+    void grantsBurstImmediately() throws InterruptedException {
+        LlmRateLimiter limiter = limiter(true, 600, 5000);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire("critic", MESSAGES).complete(10L);
+        }
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500);
+    }
+
+    @Test
+    void failsWhenPermitIsNotAvailableWithinMaxWait() throws InterruptedException {
+        LlmRateLimiter limiter = limiter(true, 60, 50);
+        limiter.acquire("critic", MESSAGES);
+
+        assertThatThrownBy(() -> limiter.acquire("critic", MESSAGES))
+                .isInstanceOf(LlmRateLimitException.class);
+        assertThat(waiting()).isZero();
+    }
+
+    @Test
+    void grantsModeratorBeforeEarlierExpert() throws Exception {
+        // 용량 1건, 1초마다 1건 회복
+        LlmRateLimiter limiter = limiter(true, 60, 5000);
+        limiter.acquire("critic", MESSAGES);
+        Queue<String> granted = new ConcurrentLinkedQueue<>();
+
+        Thread expert = acquireInBackground(limiter, "critic", granted);
+        awaitWaiting(1);
+        Thread moderator = acquireInBackground(limiter, "moderator", granted);
+        awaitWaiting(2);
+        expert.join(5000);
+        moderator.join(5000);
+
+        assertThat(granted).containsExactly("moderator", "critic");
+    }
+
+    @Test
+    void interruptedWaiterLeavesQueue() throws Exception {
+        LlmRateLimiter limiter = limiter(true, 60, 5000);
+        limiter.acquire("critic", MESSAGES);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread waiter = new Thread(() -> {
+            try {
+                limiter.acquire("critic", MESSAGES);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        waiter.start();
+        awaitWaiting(1);
+        waiter.interrupt();
+        waiter.join(5000);
+
+        assertThat(failure.get()).isInstanceOf(InterruptedException.class);
+        assertThat(waiting()).isZero();
+    }
+
+    @Test
+    void providerRateLimitHalvesLimitOncePerPauseAndPausesCalls() throws InterruptedException {
+        LlmRateLimiter limiter = limiter(true, 6000, 5000);
+
+        limiter.onRateLimited("critic", Optional.of(Duration.ofMillis(300)));
+        limiter.onRateLimited("critic", Optional.of(Duration.ofMillis(300)));
+        assertThat(limitFactor()).isEqualTo(0.5);
+
+        long start = System.nanoTime();
+        limiter.acquire("critic", MESSAGES);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(250);
+        assertThat(registry.get("debate.llm.ratelimited").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void successfulCallsRecoverLimitGradually() throws InterruptedException {
+        LlmRateLimiter limiter = limiter(true, 6000, 5000);
+        limiter.onRateLimited("critic", Optional.of(Duration.ofMillis(10)));
+        assertThat(limitFactor()).isEqualTo(0.5);
+
+        limiter.acquire("critic", MESSAGES).complete(10L);
+        assertThat(limitFactor()).isEqualTo(0.6, offset(1e-9));
+
+        // 사용량을 모르는 실패 호출은 한도를 회복시키지 않음
+        limiter.acquire("critic", MESSAGES).complete(null);
+        assertThat(limitFactor()).isEqualTo(0.6, offset(1e-9));
+    }
+
+    private LlmRateLimiter limiter(boolean enabled, double requestsPerMinute, long maxWaitMs) {
+        return new LlmRateLimiter(new TokenEstimator(), new DebateMetrics(registry), registry, enabled,
+                requestsPerMinute, 1_000_000, 1, 0, maxWaitMs, 0.1, 0.1, 1000);
+    }
+
+    private Thread acquireInBackground(LlmRateLimiter limiter, String role, Queue<String> granted) {
+        Thread thread = new Thread(() -> {
+            try {
+                limiter.acquire(role, MESSAGES);
+                granted.add(role);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void awaitWaiting(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (waiting() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(waiting()).isEqualTo(expected);
+    }
+
+    private int waiting() {
+        return (int) registry.get("debate.llm.ratelimit.waiting").gauge().value();
+    }
+
+    private double limitFactor() {
+        return registry.get("debate.llm.ratelimit.limit.factor").gauge().value();
+    }
+}
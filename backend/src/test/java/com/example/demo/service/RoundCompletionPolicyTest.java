@@ -0,0 +1,96 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ChatEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoundCompletionPolicyTest {
+
+    @Test
+    void requiredAnswersFollowMode() {
+        assertThat(policy("all", 0).requiredAnswers(5)).isEqualTo(5);
+        assertThat(policy("quorum", 0).requiredAnswers(5)).isEqualTo(3);
+        assertThat(policy("QUORUM", 0).requiredAnswers(1)).isEqualTo(1);
+        assertThat(policy("first-k", 0).requiredAnswers(5)).isEqualTo(2);
+        assertThat(policy("first-k", 0).requiredAnswers(1)).isEqualTo(1);
+    }
+
+    @Test
+    void allModeWaitsForEveryRequestAndSkipsFailures() {
+        CompletableFuture<ChatEntity> slow = new CompletableFuture<>();
+        CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS).execute(() -> slow.complete(answer("analyst")));
+
+        RoundCompletionPolicy.RoundResult result = policy("all", 0).await(List.of(
+                CompletableFuture.completedFuture(answer("critic")), CompletableFuture.completedFuture(null), slow));
+
+        assertThat(result.answers()).extracting(ChatEntity::getSender).containsExactly("critic", "analyst");
+        assertThat(result.pending()).isEmpty();
+    }
+
+    @Test
+    void quorumProceedsOnceEnoughAnswersArrive() {
+        CompletableFuture<ChatEntity> pending = new CompletableFuture<>();
+
+        RoundCompletionPolicy.RoundResult result = policy("quorum", 0).await(List.of(
+                CompletableFuture.completedFuture(answer("critic")), CompletableFuture.completedFuture(answer("creator")),
+                pending));
+
+        assertThat(result.answers()).extracting(ChatEntity::getSender).containsExactly("critic", "creator");
+        assertThat(result.pending()).containsExactly(pending);
+    }
+
+    @Test
+    void firstKProceedsWithFewerAnswersAfterDeadline() {
+        CompletableFuture<ChatEntity> second = new CompletableFuture<>();
+        CompletableFuture<ChatEntity> third = new CompletableFuture<>();
+        long start = System.nanoTime();
+
+        RoundCompletionPolicy.RoundResult result = policy("first-k", 50).await(List.of(
+                CompletableFuture.completedFuture(answer("critic")), second, third));
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(40);
+        assertThat(result.answers()).extracting(ChatEntity::getSender).containsExactly("critic");
+        assertThat(result.pending()).containsExactly(second, third);
+    }
+
+    @Test
+    void deadlineStillWaitsForFirstAnswer() {
+        CompletableFuture<ChatEntity> first = new CompletableFuture<>();
+        CompletableFuture<ChatEntity> second = new CompletableFuture<>();
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(() -> first.complete(answer("critic")));
+
+        RoundCompletionPolicy.RoundResult result = policy("first-k", 20).await(List.of(first, second));
+
+        assertThat(result.answers()).extracting(ChatEntity::getSender).containsExactly("critic");
+        assertThat(result.pending()).containsExactly(second);
+    }
+
+    @Test
+    void returnsWhenEveryRequestFails() {
+        RoundCompletionPolicy.RoundResult result = policy("first-k", 0).await(List.of(
+                CompletableFuture.completedFuture(null), CompletableFuture.completedFuture(null),
+                CompletableFuture.completedFuture(null)));
+
+        assertThat(result.answers()).isEmpty();
+        assertThat(result.pending()).isEmpty();
+    }
+
+    private static RoundCompletionPolicy policy(String mode, long deadlineMs) {
+        RoundCompletionPolicy policy = new RoundCompletionPolicy();
+        ReflectionTestUtils.setField(policy, "mode", mode);
+        ReflectionTestUtils.setField(policy, "quorum", 0.6);
+        ReflectionTestUtils.setField(policy, "firstK", 2);
+        ReflectionTestUtils.setField(policy, "deadlineMs", deadlineMs);
+        return policy;
+    }
+
+    private static ChatEntity answer(String sender) {
+        return ChatEntity.builder().sender(sender).message("답변").build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ModeratorResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleBasedModeratorStrategyTest {
+
+    private static final List<String> ROLES = List.of("creator", "critic", "analyst");
+
+    private RuleBasedModeratorStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        strategy = new RuleBasedModeratorStrategy();
+        ReflectionTestUtils.setField(strategy, "endAtProgress", 0.8);
+        ReflectionTestUtils.setField(strategy, "roundRobin", false);
+    }
+
+    @Test
+    void firstRoundAsksEveryRoleTheUserQuestion() {
+        ModeratorResponseDTO decision = strategy.decide(new ModeratorStrategy.Round(1, 5, "질문", ROLES)).orElseThrow();
+
+        assertThat(decision.getShouldEnd()).isFalse();
+        assertThat(decision.getRequest()).extracting(ModeratorResponseDTO.RequestItem::getRoleKey)
+                .containsExactlyElementsOf(ROLES);
+        assertThat(decision.getRequest()).allMatch(item -> "질문".equals(item.getMessages()));
+    }
+
+    @Test
+    void endsOnceProgressReachesThreshold() {
+        ModeratorResponseDTO decision = strategy.decide(new ModeratorStrategy.Round(4, 5, "질문", ROLES)).orElseThrow();
+
+        assertThat(decision.getShouldEnd()).isTrue();
+        assertThat(decision.getRequest()).isEmpty();
+    }
+
+    @Test
+    void singleRoundDebateIsNotEndedBeforeFirstRound() {
+        ModeratorResponseDTO decision = strategy.decide(new ModeratorStrategy.Round(1, 1, "질문", ROLES)).orElseThrow();
+
+        assertThat(decision.getShouldEnd()).isFalse();
+    }
+
+    @Test
+    void defersMiddleRoundsToLlmModerator() {
+        assertThat(strategy.decide(new ModeratorStrategy.Round(2, 5, "질문", ROLES))).isEmpty();
+        assertThat(strategy.decide(new ModeratorStrategy.Round(3, 5, "질문", ROLES))).isEmpty();
+    }
+
+    @Test
+    void roundRobinAsksOneRoleAtATime() {
+        ReflectionTestUtils.setField(strategy, "roundRobin", true);
+
+        List<String> asked = List.of(2, 3, 4, 5).stream()
+                .map(round -> strategy.decide(new ModeratorStrategy.Round(round, 10, "질문", ROLES)).orElseThrow())
+                .map(decision -> decision.getRequest().get(0).getRoleKey())
+                .toList();
+
+        assertThat(asked).containsExactly("creator", "critic", "analyst", "creator");
+    }
+
+    @Test
+    void defersWithoutPromptKeys() {
+        Optional<ModeratorResponseDTO> decision = strategy.decide(new ModeratorStrategy.Round(1, 5, "질문", List.of()));
+
+        assertThat(decision).isEmpty();
+    }
+}
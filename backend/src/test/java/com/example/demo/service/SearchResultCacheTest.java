@@ -0,0 +1,107 @@
+package com.example.demo.service;
+
+import com.example.demo.service.GoogleCustomSearchService.SearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTest {
+
+    private static final List<SearchResult> RESULTS = List.of(new SearchResult("제목", "https://example.com", "요약"));
+
+    private SearchResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchResultCache();
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 600L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "staleMaxAgeSeconds", 86400L);
+        ReflectionTestUtils.setField(cache, "dailyQuota", 100);
+        ReflectionTestUtils.setField(cache, "quotaStaleThreshold", 0.9);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void reusesResultsForNormalizedQuery() {
+        cache.getAsync("Spring  Boot", 5, () -> load(CompletableFuture.completedFuture(RESULTS))).join();
+
+        List<SearchResult> again = cache.getAsync(" spring boot ", 5, () -> load(CompletableFuture.completedFuture(List.of()))).join();
+
+        assertThat(again).isSameAs(RESULTS);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void concurrentCallersShareOneInFlightCall() {
+        CompletableFuture<List<SearchResult>> call = new CompletableFuture<>();
+
+        CompletableFuture<List<SearchResult>> first = cache.getAsync("질문", 5, () -> load(call));
+        CompletableFuture<List<SearchResult>> second = cache.getAsync("질문", 5, () -> load(new CompletableFuture<>()));
+        assertThat(first).isNotDone();
+        call.complete(RESULTS);
+
+        assertThat(first.join()).isSameAs(RESULTS);
+        assertThat(second.join()).isSameAs(RESULTS);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void cancelsCallOnlyWhenEveryWaiterCancels() {
+        CompletableFuture<List<SearchResult>> call = new CompletableFuture<>();
+        CompletableFuture<List<SearchResult>> first = cache.getAsync("질문", 5, () -> load(call));
+        CompletableFuture<List<SearchResult>> second = cache.getAsync("질문", 5, () -> load(new CompletableFuture<>()));
+
+        first.cancel(true);
+        assertThat(call).isNotDone();
+        second.cancel(true);
+
+        assertThat(call).isCancelled();
+    }
+
+    @Test
+    void doesNotCacheEmptyOrFailedResults() {
+        cache.getAsync("질문", 5, () -> load(CompletableFuture.completedFuture(List.of()))).join();
+        cache.getAsync("질문", 5, () -> load(CompletableFuture.failedFuture(new IllegalStateException("quota"))))
+                .exceptionally(ex -> List.of()).join();
+        cache.getAsync("질문", 5, () -> load(CompletableFuture.completedFuture(RESULTS))).join();
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void servesExpiredResultsWhenQuotaIsNearlyExhausted() throws InterruptedException {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        ReflectionTestUtils.setField(cache, "dailyQuota", 1);
+        cache.getAsync("질문", 5, () -> load(CompletableFuture.completedFuture(RESULTS))).join();
+        Thread.sleep(5);
+
+        List<SearchResult> stale = cache.getAsync("질문", 5, () -> load(CompletableFuture.completedFuture(List.of()))).join();
+
+        assertThat(stale).isSameAs(RESULTS);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void refetchesExpiredResultsWhileQuotaRemains() throws InterruptedException {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        cache.getAsync("질문", 5, () -> load(CompletableFuture.completedFuture(RESULTS))).join();
+        Thread.sleep(5);
+
+        cache.getAsync("질문", 5, () -> load(CompletableFuture.completedFuture(RESULTS))).join();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private CompletableFuture<List<SearchResult>> load(CompletableFuture<List<SearchResult>> result) {
+        loads.incrementAndGet();
+        return result;
+    }
+}
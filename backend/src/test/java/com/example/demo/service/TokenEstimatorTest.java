@@ -0,0 +1,39 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenEstimatorTest {
+
+    private final TokenEstimator estimator = new TokenEstimator();
+
+    @Test
+    void estimatesAsciiByFourCharsAndOtherCharsOneEach() {
+        assertThat(estimator.estimate(null)).isZero();
+        assertThat(estimator.estimate("")).isZero();
+        assertThat(estimator.estimate("abcd")).isEqualTo(1);
+        assertThat(estimator.estimate("abcde")).isEqualTo(2);
+        assertThat(estimator.estimate("안녕하세요")).isEqualTo(5);
+        assertThat(estimator.estimate("ab안녕")).isEqualTo(3);
+    }
+
+    @Test
+    void addsOverheadPerMessage() {
+        Map<String, String> message = Map.of("role", "user", "content", "abcd");
+        assertThat(estimator.estimateMessage(message)).isEqualTo(5);
+        assertThat(estimator.estimateMessages(List.of(message, message))).isEqualTo(10);
+    }
+
+    @Test
+    void truncateKeepsTextWithinBudget() {
+        String text = "가나다라마바사아자차";
+        assertThat(estimator.truncate(text, 20)).isEqualTo(text);
+        String truncated = estimator.truncate(text, 3);
+        assertThat(truncated).isEqualTo("가나다...(생략)");
+        assertThat(estimator.truncate(null, 3)).isNull();
+    }
+}